@@ -0,0 +1,399 @@
+package benchmark;
+
+import model.dao.CursoDAO;
+import model.dao.MatriculaDAO;
+import model.entities.Aluno;
+import model.entities.Curso;
+import model.entities.Matricula;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+import util.JPAUtil;
+
+import javax.persistence.EntityManager;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+
+/**
+ * Gerador de carga do dia de matrícula: N trabalhadores concorrentes buscando cursos
+ * e matriculando alunos ao mesmo tempo, com histogramas HDR de latência por operação
+ *
+ * A carga é executada em degraus (ex.: 4, 8, 16, 32 trabalhadores). Para cada degrau são
+ * reportados vazão, percentis de latência, erros e matrículas duplicadas; o ponto de
+ * saturação é o degrau a partir do qual mais trabalhadores deixam de aumentar a vazão.
+ * Cada trabalhador executa uma operação atrás da outra, sem pausa (modelo fechado): as
+ * latências medidas não incluem a espera de requisições que chegariam durante uma lentidão.
+ *
+ * Parâmetros (chave=valor): trabalhadores, duracao, aquecimento (segundos), mix,
+ * matricula (verificar = existsActiveMatricula + save, enroll = INSERT ... ON CONFLICT),
+ * alunos, cursos, disciplinas e saida (CSV com uma linha por degrau e operação)
+ * mvn -Pbenchmark compile exec:exec@carga \
+ *     -Dcarga.args="trabalhadores=8,16,32,64 duracao=30 mix=findByNome:30,findByCodigo:30,matricular:25,findByAluno:15"
+ */
+public class CargaMatricula {
+
+    private static final long MAX_LATENCIA_US = TimeUnit.MINUTES.toMicros(1);
+
+    // Ganho mínimo de vazão para um degrau não ser considerado saturado
+    private static final double GANHO_MINIMO = 0.05;
+
+    private final CursoDAO cursoDAO = new CursoDAO();
+    private final MatriculaDAO matriculaDAO = new MatriculaDAO();
+    private final DadosBenchmark dados = new DadosBenchmark();
+
+    private final int[] trabalhadores;
+    private final int duracao;
+    private final int aquecimento;
+    private final boolean verificar;
+    private final Path saida;
+    private final Map<String, Operacao> operacoes = new LinkedHashMap<>();
+    private final int pesoTotal;
+
+    private final LongAdder novas = new LongAdder();
+    private final LongAdder recusadas = new LongAdder();
+    private final LongAdder conflitos = new LongAdder();
+
+    public CargaMatricula(Map<String, String> parametros) {
+        trabalhadores = parseInts(parametros.getOrDefault("trabalhadores", "1,2,4,8,16,32"));
+        duracao = Integer.parseInt(parametros.getOrDefault("duracao", "20"));
+        aquecimento = Integer.parseInt(parametros.getOrDefault("aquecimento", "10"));
+        verificar = !"enroll".equals(parametros.getOrDefault("matricula", "verificar"));
+        saida = Paths.get(parametros.getOrDefault("saida", "target/carga-matricula.csv"));
+        dados.alunos = Integer.parseInt(parametros.getOrDefault("alunos", "5000"));
+        dados.cursos = Integer.parseInt(parametros.getOrDefault("cursos", "20"));
+        dados.disciplinas = Integer.parseInt(parametros.getOrDefault("disciplinas", "50"));
+        dados.matriculasPorAluno = 0;
+
+        int soma = 0;
+        String mix = parametros.getOrDefault("mix", "findByNome:30,findByCodigo:30,matricular:25,findByAluno:15");
+        for (String item : mix.split(",")) {
+            String[] partes = item.trim().split(":");
+            int peso = Integer.parseInt(partes[1].trim());
+            if (peso > 0) {
+                operacoes.put(partes[0].trim(), new Operacao(partes[0].trim(), peso, acao(partes[0].trim())));
+                soma += peso;
+            }
+        }
+        if (soma == 0) {
+            throw new IllegalArgumentException("mix sem nenhuma operação: " + mix);
+        }
+        pesoTotal = soma;
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> parametros = new LinkedHashMap<>();
+        for (String arg : args) {
+            int igual = arg.indexOf('=');
+            if (igual < 0) {
+                throw new IllegalArgumentException("Parâmetro inválido (use chave=valor): " + arg);
+            }
+            parametros.put(arg.substring(0, igual).trim(), arg.substring(igual + 1).trim());
+        }
+        new CargaMatricula(parametros).executar();
+    }
+
+    public void executar() throws InterruptedException, IOException {
+        dados.criar();
+        try {
+            if (aquecimento > 0) {
+                System.out.println("Aquecimento: " + trabalhadores[0] + " trabalhadores por " + aquecimento + " s");
+                degrau(trabalhadores[0], aquecimento);
+                liberarMatriculas();
+            }
+
+            List<Resultado> resultados = new ArrayList<>();
+            for (int n : trabalhadores) {
+                Resultado resultado = degrau(n, duracao);
+                resultado.duplicadas = liberarMatriculas();
+                imprimir(resultado);
+                resultados.add(resultado);
+            }
+            imprimirSaturacao(resultados);
+            gravarCsv(resultados);
+        } finally {
+            dados.remover();
+        }
+    }
+
+    /**
+     * Executa a carga com n trabalhadores por alguns segundos
+     * @return Histogramas e contadores do intervalo
+     */
+    private Resultado degrau(int n, int segundos) throws InterruptedException {
+        for (Operacao operacao : operacoes.values()) {
+            operacao.zerar();
+        }
+        novas.reset();
+        recusadas.reset();
+        conflitos.reset();
+
+        ExecutorService executor = Executors.newFixedThreadPool(n);
+        long inicio = System.nanoTime();
+        long fim = inicio + TimeUnit.SECONDS.toNanos(segundos);
+        for (int i = 0; i < n; i++) {
+            executor.execute(() -> {
+                while (System.nanoTime() < fim) {
+                    sortear().executar();
+                }
+            });
+        }
+        executor.shutdown();
+        if (!executor.awaitTermination(segundos + 60L, TimeUnit.SECONDS)) {
+            executor.shutdownNow();
+            System.err.println("Trabalhadores não terminaram a tempo; o degrau de " + n + " foi interrompido");
+        }
+
+        Resultado resultado = new Resultado(n, (System.nanoTime() - inicio) / 1e9);
+        for (Operacao operacao : operacoes.values()) {
+            resultado.histogramas.put(operacao.nome, operacao.recorder.getIntervalHistogram());
+            resultado.erros.put(operacao.nome, operacao.erros.sum());
+        }
+        resultado.novas = novas.sum();
+        resultado.recusadas = recusadas.sum();
+        resultado.conflitos = conflitos.sum();
+        return resultado;
+    }
+
+    private Operacao sortear() {
+        int sorteio = ThreadLocalRandom.current().nextInt(pesoTotal);
+        for (Operacao operacao : operacoes.values()) {
+            sorteio -= operacao.peso;
+            if (sorteio < 0) {
+                return operacao;
+            }
+        }
+        throw new IllegalStateException();
+    }
+
+    private Runnable acao(String nome) {
+        switch (nome) {
+            case "findByNome":
+                return () -> cursoDAO.findByNome(dados.cursoAleatorio().getNome());
+            case "findByCodigo":
+                return () -> cursoDAO.findByCodigo(dados.cursoAleatorio().getCodigo());
+            case "findByAluno":
+                return () -> matriculaDAO.findByAluno(dados.alunoAleatorio().getId());
+            case "matricular":
+                return this::matricular;
+            default:
+                throw new IllegalArgumentException("Operação desconhecida no mix: " + nome +
+                        " (use findByNome, findByCodigo, matricular, findByAluno)");
+        }
+    }
+
+    /**
+     * Matricula um aluno sorteado em um curso sorteado
+     * Na sequência verificar, uma violação do índice único de matrícula ativa é uma
+     * matrícula duplicada que o banco recusou (conflito), não um erro
+     */
+    private void matricular() {
+        Aluno aluno = dados.alunoAleatorio();
+        Curso curso = dados.cursoAleatorio();
+        if (!verificar) {
+            (matriculaDAO.enroll(aluno.getId(), curso.getId()) != null ? novas : recusadas).increment();
+            return;
+        }
+        if (matriculaDAO.existsActiveMatricula(aluno.getId(), curso.getId())) {
+            recusadas.increment();
+            return;
+        }
+        try {
+            matriculaDAO.save(new Matricula(aluno, curso));
+            novas.increment();
+        } catch (RuntimeException e) {
+            if (!violacaoUnica(e)) {
+                throw e;
+            }
+            conflitos.increment();
+        }
+    }
+
+    private static boolean violacaoUnica(Throwable e) {
+        for (Throwable causa = e; causa != null; causa = causa.getCause()) {
+            if (causa instanceof SQLException && "23505".equals(((SQLException) causa).getSQLState())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Conta os pares aluno/curso com mais de uma matrícula ATIVA e cancela as matrículas
+     * do degrau, para que o próximo comece com as vagas livres
+     * @return Pares duplicados
+     */
+    private long liberarMatriculas() {
+        List<Long> cursoIds = dados.listaCursos.stream().map(Curso::getId).collect(Collectors.toList());
+        EntityManager em = JPAUtil.getEntityManager();
+        try {
+            em.getTransaction().begin();
+            long duplicadas = ((Number) em.createNativeQuery(
+                    "SELECT count(*) FROM (SELECT 1 FROM matriculas " +
+                    "WHERE status = 'ATIVA' AND curso_id IN (:cursoIds) " +
+                    "GROUP BY aluno_id, curso_id HAVING count(*) > 1) d")
+                    .setParameter("cursoIds", cursoIds)
+                    .getSingleResult()).longValue();
+            em.createQuery("UPDATE Matricula m SET m.status = :cancelada " +
+                    "WHERE m.status = :ativa AND m.curso.id IN (:cursoIds)")
+                    .setParameter("cancelada", Matricula.StatusMatricula.CANCELADA)
+                    .setParameter("ativa", Matricula.StatusMatricula.ATIVA)
+                    .setParameter("cursoIds", cursoIds)
+                    .executeUpdate();
+            em.getTransaction().commit();
+            return duplicadas;
+        } finally {
+            if (em.getTransaction().isActive()) {
+                em.getTransaction().rollback();
+            }
+            em.close();
+        }
+    }
+
+    private void imprimir(Resultado resultado) {
+        System.out.printf(Locale.ROOT, "%n== %d trabalhadores: %.0f ops/s em %.1f s ==%n",
+                resultado.trabalhadores, resultado.vazao(), resultado.segundos);
+        System.out.printf(Locale.ROOT, "%-14s %9s %9s %9s %9s %9s %9s %9s %7s%n",
+                "operacao", "total", "ops/s", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms", "erros");
+        for (Map.Entry<String, Histogram> entrada : resultado.histogramas.entrySet()) {
+            Histogram h = entrada.getValue();
+            System.out.printf(Locale.ROOT, "%-14s %9d %9.0f %9.2f %9.2f %9.2f %9.2f %9.2f %7d%n",
+                    entrada.getKey(), h.getTotalCount(), h.getTotalCount() / resultado.segundos,
+                    ms(h, 50), ms(h, 90), ms(h, 99), ms(h, 99.9), h.getMaxValue() / 1000.0,
+                    resultado.erros.get(entrada.getKey()));
+        }
+        if (operacoes.containsKey("matricular")) {
+            System.out.println("matrículas: " + resultado.novas + " novas, " + resultado.recusadas +
+                    " recusadas (já ativas), " + resultado.conflitos + " conflitos no índice único, " +
+                    resultado.duplicadas + " duplicadas no banco");
+        }
+    }
+
+    /**
+     * Saturação: primeiro degrau cuja vazão não supera a do anterior em GANHO_MINIMO
+     */
+    private void imprimirSaturacao(List<Resultado> resultados) {
+        for (int i = 1; i < resultados.size(); i++) {
+            Resultado anterior = resultados.get(i - 1);
+            Resultado atual = resultados.get(i);
+            if (atual.vazao() < anterior.vazao() * (1 + GANHO_MINIMO)) {
+                System.out.printf(Locale.ROOT, "%nPonto de saturação: ~%d trabalhadores, %.0f ops/s " +
+                                "(com %d: %.0f ops/s, p99 geral %.2f -> %.2f ms)%n",
+                        anterior.trabalhadores, anterior.vazao(), atual.trabalhadores, atual.vazao(),
+                        anterior.p99Geral(), atual.p99Geral());
+                return;
+            }
+        }
+        System.out.println("\nSem saturação até " + resultados.get(resultados.size() - 1).trabalhadores +
+                " trabalhadores; aumente a rampa (trabalhadores=...)");
+    }
+
+    private void gravarCsv(List<Resultado> resultados) throws IOException {
+        if (saida.getParent() != null) {
+            Files.createDirectories(saida.getParent());
+        }
+        try (PrintWriter out = new PrintWriter(Files.newBufferedWriter(saida))) {
+            out.println("trabalhadores,operacao,total,ops_s,p50_ms,p90_ms,p99_ms,p999_ms,max_ms,erros," +
+                    "novas,recusadas,conflitos,duplicadas");
+            for (Resultado r : resultados) {
+                for (Map.Entry<String, Histogram> entrada : r.histogramas.entrySet()) {
+                    Histogram h = entrada.getValue();
+                    out.printf(Locale.ROOT, "%d,%s,%d,%.1f,%.3f,%.3f,%.3f,%.3f,%.3f,%d,%d,%d,%d,%d%n",
+                            r.trabalhadores, entrada.getKey(), h.getTotalCount(), h.getTotalCount() / r.segundos,
+                            ms(h, 50), ms(h, 90), ms(h, 99), ms(h, 99.9), h.getMaxValue() / 1000.0,
+                            r.erros.get(entrada.getKey()), r.novas, r.recusadas, r.conflitos, r.duplicadas);
+                }
+            }
+        }
+        System.out.println("Resultado gravado em " + saida);
+    }
+
+    private static double ms(Histogram histograma, double percentil) {
+        return histograma.getValueAtPercentile(percentil) / 1000.0;
+    }
+
+    private static int[] parseInts(String valor) {
+        String[] partes = valor.split(",");
+        int[] numeros = new int[partes.length];
+        for (int i = 0; i < partes.length; i++) {
+            numeros[i] = Integer.parseInt(partes[i].trim());
+        }
+        return numeros;
+    }
+
+    /**
+     * Operação do mix com seu histograma (Recorder aceita gravações concorrentes)
+     */
+    private static class Operacao {
+        final String nome;
+        final int peso;
+        final Runnable acao;
+        final Recorder recorder = new Recorder(MAX_LATENCIA_US, 3);
+        final LongAdder erros = new LongAdder();
+
+        Operacao(String nome, int peso, Runnable acao) {
+            this.nome = nome;
+            this.peso = peso;
+            this.acao = acao;
+        }
+
+        void executar() {
+            long inicio = System.nanoTime();
+            try {
+                acao.run();
+            } catch (RuntimeException e) {
+                // Uma linha por falha basta para diagnosticar; o total vai para o relatório
+                if (erros.sum() < 10) {
+                    System.err.println("Erro em " + nome + ": " + e.getMessage());
+                }
+                erros.increment();
+            }
+            long micros = (System.nanoTime() - inicio) / 1000;
+            recorder.recordValue(Math.min(micros, MAX_LATENCIA_US));
+        }
+
+        void zerar() {
+            recorder.reset();
+            erros.reset();
+        }
+    }
+
+    private static class Resultado {
+        final int trabalhadores;
+        final double segundos;
+        final Map<String, Histogram> histogramas = new LinkedHashMap<>();
+        final Map<String, Long> erros = new LinkedHashMap<>();
+        long novas;
+        long recusadas;
+        long conflitos;
+        long duplicadas;
+
+        Resultado(int trabalhadores, double segundos) {
+            this.trabalhadores = trabalhadores;
+            this.segundos = segundos;
+        }
+
+        double vazao() {
+            return histogramas.values().stream().mapToLong(Histogram::getTotalCount).sum() / segundos;
+        }
+
+        double p99Geral() {
+            Histogram geral = new Histogram(MAX_LATENCIA_US, 3);
+            histogramas.values().forEach(geral::add);
+            return ms(geral, 99);
+        }
+    }
+}
@@ -0,0 +1,131 @@
+package benchmark;
+
+import model.dao.AlunoDAO;
+import model.dao.CursoDAO;
+import model.dao.Pagina;
+import model.entities.Aluno;
+import model.entities.Curso;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Operações do GenericDAO (CRUD, patch, paginação, streaming e contagem) sobre a massa de
+ * DadosBenchmark
+ * Mede vazão (ops/ms) e a distribuição da latência (SampleTime: p50, p90, p99, p99.9):
+ * mvn -Pbenchmark compile exec:exec -Djmh.args="DAOBenchmark -p alunos=50000"
+ */
+@State(Scope.Thread)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 3)
+@Measurement(iterations = 5, time = 3)
+@Fork(1)
+public class DAOBenchmark {
+
+    static final int LOTE = 100;
+
+    private final AlunoDAO alunoDAO = new AlunoDAO();
+    private final CursoDAO cursoDAO = new CursoDAO();
+    private long sequencia;
+
+    /**
+     * Aluno recriado antes de cada chamada de delete (o custo do save fica fora da medição)
+     */
+    @State(Scope.Thread)
+    public static class ParaRemover {
+        Aluno aluno;
+
+        @Setup(Level.Invocation)
+        public void criar(DAOBenchmark bench, DadosBenchmark dados) {
+            aluno = bench.alunoDAO.save(bench.novoAluno(dados));
+        }
+    }
+
+    @Benchmark
+    public Aluno findById(DadosBenchmark dados) {
+        return alunoDAO.findById(dados.alunoAleatorio().getId());
+    }
+
+    @Benchmark
+    public List<Curso> findAllCursos() {
+        return cursoDAO.findAll();
+    }
+
+    @Benchmark
+    public List<Aluno> findAllAlunos() {
+        return alunoDAO.findAll();
+    }
+
+    @Benchmark
+    public Pagina<Aluno> findPageAfter(DadosBenchmark dados) {
+        return alunoDAO.findPageAfter(dados.alunoAleatorio().getId(), 50);
+    }
+
+    @Benchmark
+    public void streamAll(Blackhole blackhole) {
+        alunoDAO.streamAll(blackhole::consume);
+    }
+
+    @Benchmark
+    public Long count() {
+        return alunoDAO.count();
+    }
+
+    @Benchmark
+    public Aluno save(DadosBenchmark dados) {
+        return alunoDAO.save(novoAluno(dados));
+    }
+
+    @Benchmark
+    public int saveAll(DadosBenchmark dados) {
+        List<Aluno> alunos = new ArrayList<>(LOTE);
+        for (int i = 0; i < LOTE; i++) {
+            alunos.add(novoAluno(dados));
+        }
+        return alunoDAO.saveAll(alunos);
+    }
+
+    // A cópia devolvida por merge tem a nova versão e substitui a da massa
+    @Benchmark
+    public Aluno update(DadosBenchmark dados) {
+        int i = ThreadLocalRandom.current().nextInt(dados.listaAlunos.size());
+        Aluno aluno = dados.listaAlunos.get(i);
+        aluno.setTelefone(String.valueOf(ThreadLocalRandom.current().nextInt(100_000_000)));
+        Aluno atualizado = alunoDAO.update(aluno);
+        dados.listaAlunos.set(i, atualizado);
+        return atualizado;
+    }
+
+    @Benchmark
+    public boolean patch(DadosBenchmark dados) {
+        return alunoDAO.patch(dados.alunoAleatorio().getId(),
+                Map.of("telefone", String.valueOf(ThreadLocalRandom.current().nextInt(100_000_000))));
+    }
+
+    @Benchmark
+    public void delete(ParaRemover paraRemover) {
+        alunoDAO.delete(paraRemover.aluno.getId());
+    }
+
+    // Removidos com o restante da massa (mesmo prefixo)
+    private Aluno novoAluno(DadosBenchmark dados) {
+        String matricula = dados.prefixo + "N" + Thread.currentThread().getId() + "-" + (sequencia++);
+        return new Aluno("Aluno " + matricula, matricula, matricula + "@bench.local");
+    }
+}
@@ -0,0 +1,162 @@
+package benchmark;
+
+import model.dao.AlunoDAO;
+import model.dao.CursoDAO;
+import model.dao.DisciplinaDAO;
+import model.dao.MatriculaDAO;
+import model.entities.Aluno;
+import model.entities.Curso;
+import model.entities.Disciplina;
+import model.entities.Matricula;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import util.JPAUtil;
+
+import javax.persistence.EntityManager;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Massa de dados compartilhada pelos benchmarks de DAO (DAOBenchmark, FinderBenchmark)
+ * O tamanho é configurável pelos parâmetros JMH, ex.: -p alunos=100000 -p cursos=200
+ * Todos os registros usam um prefixo próprio e são removidos ao final; as consultas que
+ * não filtram por esse prefixo (findAll, findByStatus, count) também veem o que já existe
+ * no banco, então prefira um banco dedicado aos benchmarks.
+ */
+@State(Scope.Benchmark)
+public class DadosBenchmark {
+
+    private static final String[] NOMES = {"Ana", "Bruno", "Carla", "Diego", "Eduarda", "Felipe",
+            "Gabriela", "Hugo", "Isabela", "João", "Larissa", "Marcos", "Natália", "Otávio"};
+    private static final String[] SOBRENOMES = {"Silva", "Santos", "Oliveira", "Souza", "Lima",
+            "Pereira", "Costa", "Almeida", "Ferreira", "Rodrigues", "Gomes", "Martins"};
+
+    @Param({"1000", "10000"})
+    public int alunos;
+
+    @Param({"20"})
+    public int cursos;
+
+    @Param({"50"})
+    public int disciplinas;
+
+    @Param({"2"})
+    public int matriculasPorAluno;
+
+    final String prefixo = "DB" + Long.toString(System.nanoTime() % 1_000_000L, 36);
+
+    List<Aluno> listaAlunos;
+    List<Curso> listaCursos;
+    List<Disciplina> listaDisciplinas;
+
+    @Setup(Level.Trial)
+    public void criar() {
+        long inicio = System.nanoTime();
+
+        listaDisciplinas = new ArrayList<>(disciplinas);
+        for (int i = 0; i < disciplinas; i++) {
+            listaDisciplinas.add(new Disciplina("Disciplina " + SOBRENOMES[i % SOBRENOMES.length] + " " + i,
+                    prefixo + "D" + i, 60));
+        }
+        new DisciplinaDAO().saveAll(listaDisciplinas);
+
+        // Cada curso tem até 5 disciplinas (curso_disciplina)
+        listaCursos = new ArrayList<>(cursos);
+        for (int i = 0; i < cursos; i++) {
+            Curso curso = new Curso("Curso " + NOMES[i % NOMES.length] + " " + i, prefixo + "C" + i);
+            for (int d = 0; d < Math.min(5, disciplinas); d++) {
+                curso.getDisciplinas().add(listaDisciplinas.get((i * 5 + d) % disciplinas));
+            }
+            listaCursos.add(curso);
+        }
+        new CursoDAO().saveAll(listaCursos);
+
+        listaAlunos = new ArrayList<>(alunos);
+        for (int i = 0; i < alunos; i++) {
+            String matricula = prefixo + "A" + i;
+            String nome = NOMES[i % NOMES.length] + " " + SOBRENOMES[(i / NOMES.length) % SOBRENOMES.length] +
+                    " " + matricula;
+            listaAlunos.add(new Aluno(nome, matricula, matricula + "@bench.local"));
+        }
+        new AlunoDAO().saveAll(listaAlunos);
+
+        // matriculasPorAluno cursos distintos por aluno; uma em cada quatro já concluída
+        List<Matricula> matriculas = new ArrayList<>(alunos * matriculasPorAluno);
+        for (int i = 0; i < alunos; i++) {
+            for (int m = 0; m < Math.min(matriculasPorAluno, cursos); m++) {
+                Matricula matricula = new Matricula(listaAlunos.get(i), listaCursos.get((i + m) % cursos));
+                if ((i + m) % 4 == 0) {
+                    matricula.setStatus(Matricula.StatusMatricula.CONCLUIDA);
+                }
+                matriculas.add(matricula);
+            }
+        }
+        new MatriculaDAO().saveAll(matriculas);
+        listaAlunos = recarregarAlunos();
+
+        System.out.println("Massa de dados criada em " + (System.nanoTime() - inicio) / 1_000_000 + " ms: " +
+                alunos + " alunos, " + cursos + " cursos, " + disciplinas + " disciplinas, " +
+                matriculas.size() + " matrículas");
+    }
+
+    @TearDown(Level.Trial)
+    public void remover() {
+        EntityManager em = JPAUtil.getEntityManager();
+        try {
+            em.getTransaction().begin();
+            em.createQuery("DELETE FROM Matricula m " +
+                    "WHERE m.curso.id IN (SELECT c.id FROM Curso c WHERE c.codigo LIKE :prefixo) " +
+                    "OR m.aluno.id IN (SELECT a.id FROM Aluno a WHERE a.matricula LIKE :prefixo)")
+                    .setParameter("prefixo", prefixo + "%").executeUpdate();
+            em.createNativeQuery("DELETE FROM curso_disciplina cd USING cursos c " +
+                    "WHERE c.id = cd.curso_id AND c.codigo LIKE :prefixo")
+                    .setParameter("prefixo", prefixo + "%").executeUpdate();
+            em.createQuery("DELETE FROM Aluno a WHERE a.matricula LIKE :prefixo")
+                    .setParameter("prefixo", prefixo + "%").executeUpdate();
+            em.createQuery("DELETE FROM Curso c WHERE c.codigo LIKE :prefixo")
+                    .setParameter("prefixo", prefixo + "%").executeUpdate();
+            em.createQuery("DELETE FROM Disciplina d WHERE d.codigo LIKE :prefixo")
+                    .setParameter("prefixo", prefixo + "%").executeUpdate();
+            em.getTransaction().commit();
+        } finally {
+            em.close();
+        }
+        JPAUtil.close();
+    }
+
+    // As instâncias criadas acima têm a coleção matriculas inicializada e vazia (as matrículas
+    // foram salvas à parte): um merge delas (DAOBenchmark.update) removeria as matrículas do
+    // aluno por orphanRemoval. Cópias lidas do banco têm a coleção não inicializada, que o
+    // merge ignora
+    private List<Aluno> recarregarAlunos() {
+        EntityManager em = JPAUtil.getEntityManager();
+        try {
+            return em.createQuery("SELECT a FROM Aluno a WHERE a.matricula LIKE :prefixo ORDER BY a.id", Aluno.class)
+                    .setParameter("prefixo", prefixo + "%")
+                    .getResultList();
+        } finally {
+            em.close();
+        }
+    }
+
+    Aluno alunoAleatorio() {
+        return listaAlunos.get(ThreadLocalRandom.current().nextInt(listaAlunos.size()));
+    }
+
+    Curso cursoAleatorio() {
+        return listaCursos.get(ThreadLocalRandom.current().nextInt(listaCursos.size()));
+    }
+
+    Disciplina disciplinaAleatoria() {
+        return listaDisciplinas.get(ThreadLocalRandom.current().nextInt(listaDisciplinas.size()));
+    }
+
+    String sobrenomeAleatorio() {
+        return SOBRENOMES[ThreadLocalRandom.current().nextInt(SOBRENOMES.length)];
+    }
+}
@@ -0,0 +1,153 @@
+package benchmark;
+
+import model.dao.AlunoDAO;
+import model.dao.CursoDAO;
+import model.dao.MatriculaDAO;
+import model.entities.Aluno;
+import model.entities.Curso;
+import model.entities.Matricula;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import util.JPAUtil;
+
+import javax.persistence.EntityManager;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Teste de carga do dia de matrícula: várias threads matriculando os mesmos
+ * alunos nos mesmos cursos ao mesmo tempo
+ * Compara enroll (INSERT ... ON CONFLICT) com a sequência antiga
+ * existsActiveMatricula + save, e ao fim de cada iteração confere que não
+ * existe nenhum par aluno/curso com duas matrículas ATIVA
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Threads(16)
+@Fork(1)
+public class EnrollBenchmark {
+
+    @Param({"500"})
+    public int alunos;
+
+    @Param({"4"})
+    public int cursos;
+
+    private final AlunoDAO alunoDAO = new AlunoDAO();
+    private final CursoDAO cursoDAO = new CursoDAO();
+    private final MatriculaDAO matriculaDAO = new MatriculaDAO();
+    private final String prefixo = "EB" + Long.toString(System.nanoTime() % 1_000_000L, 36);
+    private final List<Aluno> listaAlunos = new ArrayList<>();
+    private final List<Curso> listaCursos = new ArrayList<>();
+    private final List<Long> cursoIds = new ArrayList<>();
+    private final AtomicLong conflitos = new AtomicLong();
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        for (int i = 0; i < cursos; i++) {
+            Curso curso = cursoDAO.save(new Curso("Curso " + prefixo + i, prefixo + i));
+            listaCursos.add(curso);
+            cursoIds.add(curso.getId());
+        }
+        for (int i = 0; i < alunos; i++) {
+            String matricula = prefixo + i;
+            listaAlunos.add(new Aluno("Aluno " + matricula, matricula, matricula + "@bench.local"));
+        }
+        alunoDAO.saveAll(listaAlunos);
+    }
+
+    /**
+     * Confere as duplicatas e cancela as matrículas da iteração, liberando os pares
+     */
+    @TearDown(Level.Iteration)
+    public void verificarELiberar() {
+        EntityManager em = JPAUtil.getEntityManager();
+        try {
+            em.getTransaction().begin();
+            long duplicadas = ((Number) em.createNativeQuery(
+                    "SELECT count(*) FROM (SELECT 1 FROM matriculas " +
+                    "WHERE status = 'ATIVA' AND curso_id IN (:cursoIds) " +
+                    "GROUP BY aluno_id, curso_id HAVING count(*) > 1) d")
+                    .setParameter("cursoIds", cursoIds)
+                    .getSingleResult()).longValue();
+            int matriculadas = em.createQuery("UPDATE Matricula m SET m.status = :cancelada " +
+                    "WHERE m.status = :ativa AND m.curso.id IN (:cursoIds)")
+                    .setParameter("cancelada", Matricula.StatusMatricula.CANCELADA)
+                    .setParameter("ativa", Matricula.StatusMatricula.ATIVA)
+                    .setParameter("cursoIds", cursoIds)
+                    .executeUpdate();
+            em.getTransaction().commit();
+            System.out.println("\nmatriculas ativas: " + matriculadas + ", duplicadas: " + duplicadas +
+                    ", conflitos na sequencia antiga: " + conflitos.getAndSet(0));
+            if (duplicadas > 0) {
+                throw new IllegalStateException(duplicadas + " pares aluno/curso com matricula ATIVA duplicada");
+            }
+        } finally {
+            em.close();
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        EntityManager em = JPAUtil.getEntityManager();
+        try {
+            em.getTransaction().begin();
+            em.createQuery("DELETE FROM Matricula m WHERE m.curso.id IN (:cursoIds)")
+                    .setParameter("cursoIds", cursoIds).executeUpdate();
+            em.createQuery("DELETE FROM Aluno a WHERE a.matricula LIKE :prefixo")
+                    .setParameter("prefixo", prefixo + "%").executeUpdate();
+            em.createQuery("DELETE FROM Curso c WHERE c.id IN (:cursoIds)")
+                    .setParameter("cursoIds", cursoIds).executeUpdate();
+            em.getTransaction().commit();
+        } finally {
+            em.close();
+        }
+        JPAUtil.close();
+    }
+
+    @Benchmark
+    public Long enroll() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        Aluno aluno = listaAlunos.get(random.nextInt(alunos));
+        Curso curso = listaCursos.get(random.nextInt(cursos));
+        return matriculaDAO.enroll(aluno.getId(), curso.getId());
+    }
+
+    /**
+     * Sequência anterior: consulta e depois insere, em transações separadas
+     * Sem o índice parcial, cada conflito aqui seria uma matrícula duplicada
+     */
+    @Benchmark
+    public Matricula verificarESalvar() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        Aluno aluno = listaAlunos.get(random.nextInt(alunos));
+        Curso curso = listaCursos.get(random.nextInt(cursos));
+        if (matriculaDAO.existsActiveMatricula(aluno.getId(), curso.getId())) {
+            return null;
+        }
+        try {
+            return matriculaDAO.save(new Matricula(aluno, curso));
+        } catch (RuntimeException e) {
+            conflitos.incrementAndGet();
+            return null;
+        }
+    }
+}
@@ -0,0 +1,156 @@
+package benchmark;
+
+import model.dao.AlunoDAO;
+import model.dao.CursoDAO;
+import model.dao.DisciplinaDAO;
+import model.dao.MatriculaDAO;
+import model.dao.Pagina;
+import model.dto.AlunoResumo;
+import model.dto.CursoResumo;
+import model.dto.DisciplinaResumo;
+import model.dto.MatriculaLinha;
+import model.entities.Aluno;
+import model.entities.Curso;
+import model.entities.Disciplina;
+import model.entities.Matricula;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Métodos de busca de AlunoDAO, CursoDAO, DisciplinaDAO e MatriculaDAO sobre a massa
+ * de DadosBenchmark, com chaves sorteadas a cada chamada
+ * Mede vazão (ops/ms) e a distribuição da latência (SampleTime: p50, p90, p99, p99.9):
+ * mvn -Pbenchmark compile exec:exec -Djmh.args="FinderBenchmark.aluno -p alunos=50000"
+ */
+@State(Scope.Thread)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 3)
+@Measurement(iterations = 5, time = 3)
+@Fork(1)
+public class FinderBenchmark {
+
+    private final AlunoDAO alunoDAO = new AlunoDAO();
+    private final CursoDAO cursoDAO = new CursoDAO();
+    private final DisciplinaDAO disciplinaDAO = new DisciplinaDAO();
+    private final MatriculaDAO matriculaDAO = new MatriculaDAO();
+
+    // AlunoDAO
+
+    @Benchmark
+    public Aluno alunoFindByMatricula(DadosBenchmark dados) {
+        return alunoDAO.findByMatricula(dados.alunoAleatorio().getMatricula());
+    }
+
+    @Benchmark
+    public Aluno alunoFindByEmail(DadosBenchmark dados) {
+        return alunoDAO.findByEmail(dados.alunoAleatorio().getEmail());
+    }
+
+    @Benchmark
+    public List<Aluno> alunoFindByNome(DadosBenchmark dados) {
+        return alunoDAO.findByNome(dados.alunoAleatorio().getMatricula());
+    }
+
+    @Benchmark
+    public List<Aluno> alunoSearchByNome(DadosBenchmark dados) {
+        return alunoDAO.searchByNome(dados.sobrenomeAleatorio(), 20);
+    }
+
+    @Benchmark
+    public Pagina<Aluno> alunoFindPageByNomeAfter(DadosBenchmark dados) {
+        Aluno aluno = dados.alunoAleatorio();
+        return alunoDAO.findPageByNomeAfter(aluno.getNome(), aluno.getId(), 50);
+    }
+
+    @Benchmark
+    public List<AlunoResumo> alunoFindAllResumo() {
+        return alunoDAO.findAllResumo();
+    }
+
+    // CursoDAO
+
+    @Benchmark
+    public Curso cursoFindByCodigo(DadosBenchmark dados) {
+        return cursoDAO.findByCodigo(dados.cursoAleatorio().getCodigo());
+    }
+
+    @Benchmark
+    public List<Curso> cursoFindByNome(DadosBenchmark dados) {
+        return cursoDAO.findByNome(dados.cursoAleatorio().getNome());
+    }
+
+    @Benchmark
+    public List<Curso> cursoSearchByNome(DadosBenchmark dados) {
+        return cursoDAO.searchByNome(dados.cursoAleatorio().getNome(), 20);
+    }
+
+    @Benchmark
+    public List<CursoResumo> cursoFindAllResumo() {
+        return cursoDAO.findAllResumo();
+    }
+
+    // DisciplinaDAO
+
+    @Benchmark
+    public Disciplina disciplinaFindByCodigo(DadosBenchmark dados) {
+        return disciplinaDAO.findByCodigo(dados.disciplinaAleatoria().getCodigo());
+    }
+
+    @Benchmark
+    public List<Disciplina> disciplinaFindByNome(DadosBenchmark dados) {
+        return disciplinaDAO.findByNome(dados.disciplinaAleatoria().getNome());
+    }
+
+    @Benchmark
+    public List<Disciplina> disciplinaSearchByNome(DadosBenchmark dados) {
+        return disciplinaDAO.searchByNome(dados.sobrenomeAleatorio(), 20);
+    }
+
+    @Benchmark
+    public List<DisciplinaResumo> disciplinaFindAllResumo() {
+        return disciplinaDAO.findAllResumo();
+    }
+
+    // MatriculaDAO
+
+    @Benchmark
+    public List<Matricula> matriculaFindByAluno(DadosBenchmark dados) {
+        return matriculaDAO.findByAluno(dados.alunoAleatorio().getId());
+    }
+
+    @Benchmark
+    public List<Matricula> matriculaFindByCurso(DadosBenchmark dados) {
+        return matriculaDAO.findByCurso(dados.cursoAleatorio().getId());
+    }
+
+    @Benchmark
+    public List<Matricula> matriculaFindByCursoWithAlunos(DadosBenchmark dados) {
+        return matriculaDAO.findByCursoWithAlunos(dados.cursoAleatorio().getId());
+    }
+
+    @Benchmark
+    public List<Matricula> matriculaFindByStatus() {
+        return matriculaDAO.findByStatus(Matricula.StatusMatricula.CONCLUIDA);
+    }
+
+    @Benchmark
+    public boolean matriculaExistsActive(DadosBenchmark dados) {
+        return matriculaDAO.existsActiveMatricula(dados.alunoAleatorio().getId(), dados.cursoAleatorio().getId());
+    }
+
+    @Benchmark
+    public List<MatriculaLinha> matriculaFindLinhasByCurso(DadosBenchmark dados) {
+        return matriculaDAO.findLinhasByCurso(dados.cursoAleatorio().getId());
+    }
+}
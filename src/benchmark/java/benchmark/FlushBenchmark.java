@@ -0,0 +1,133 @@
+package benchmark;
+
+import model.dao.AlunoDAO;
+import model.dao.CursoDAO;
+import model.dao.MatriculaDAO;
+import model.entities.Aluno;
+import model.entities.Curso;
+import model.entities.Matricula;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import util.JPAUtil;
+
+import javax.persistence.EntityManager;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Custo do flush em uma sessão grande: {@code alunos} alunos ou matrículas gerenciados,
+ * dos quais apenas {@code alteradas} mudam entre um flush e outro
+ * Sem enhancement o Hibernate compara cada entidade com o snapshot; com enhancement
+ * só as entidades que registraram alterações são comparadas. Para comparar:
+ * mvn clean -Pbenchmark compile exec:exec -Djmh.args="Flush -prof gc"
+ * mvn clean -Pbenchmark,sem-enhancement compile exec:exec -Djmh.args="Flush -prof gc"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 3)
+@Measurement(iterations = 5, time = 3)
+@Fork(1)
+public class FlushBenchmark {
+
+    @Param({"1000", "10000"})
+    public int alunos;
+
+    @Param({"10"})
+    public int alteradas;
+
+    @Param({"Aluno", "Matricula"})
+    public String entidade;
+
+    private final AlunoDAO alunoDAO = new AlunoDAO();
+    private final CursoDAO cursoDAO = new CursoDAO();
+    private final MatriculaDAO matriculaDAO = new MatriculaDAO();
+    private final String prefixo = "FB" + Long.toString(System.nanoTime() % 1_000_000L, 36);
+    private Curso curso;
+    private EntityManager em;
+    private List<?> sessao;
+    private int rodada;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        curso = cursoDAO.save(new Curso("Curso " + prefixo, prefixo));
+        List<Aluno> novos = new ArrayList<>(alunos);
+        for (int i = 0; i < alunos; i++) {
+            String matricula = prefixo + i;
+            novos.add(new Aluno("Aluno " + matricula, matricula, matricula + "@bench.local"));
+        }
+        alunoDAO.saveAll(novos);
+        List<Matricula> matriculas = new ArrayList<>(alunos);
+        for (Aluno aluno : novos) {
+            matriculas.add(new Matricula(aluno, curso));
+        }
+        matriculaDAO.saveAll(matriculas);
+    }
+
+    @Setup(Level.Iteration)
+    public void abrirSessao() {
+        em = JPAUtil.getEntityManager();
+        em.getTransaction().begin();
+        if ("Aluno".equals(entidade)) {
+            sessao = em.createQuery("SELECT a FROM Aluno a WHERE a.matricula LIKE :prefixo", Aluno.class)
+                    .setParameter("prefixo", prefixo + "%")
+                    .getResultList();
+        } else {
+            sessao = em.createQuery("SELECT m FROM Matricula m WHERE m.curso.id = :cursoId", Matricula.class)
+                    .setParameter("cursoId", curso.getId())
+                    .getResultList();
+        }
+    }
+
+    @TearDown(Level.Iteration)
+    public void fecharSessao() {
+        em.getTransaction().rollback();
+        em.close();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        EntityManager em = JPAUtil.getEntityManager();
+        try {
+            em.getTransaction().begin();
+            em.createQuery("DELETE FROM Matricula m WHERE m.curso.id = :cursoId")
+                    .setParameter("cursoId", curso.getId()).executeUpdate();
+            em.createQuery("DELETE FROM Aluno a WHERE a.matricula LIKE :prefixo")
+                    .setParameter("prefixo", prefixo + "%").executeUpdate();
+            em.createQuery("DELETE FROM Curso c WHERE c.id = :cursoId")
+                    .setParameter("cursoId", curso.getId()).executeUpdate();
+            em.getTransaction().commit();
+        } finally {
+            em.close();
+        }
+        JPAUtil.close();
+    }
+
+    @Benchmark
+    public void flush() {
+        rodada++;
+        for (int i = 0; i < alteradas; i++) {
+            Object entity = sessao.get((rodada * alteradas + i) % sessao.size());
+            if (entity instanceof Aluno) {
+                Aluno aluno = (Aluno) entity;
+                aluno.setNome("Aluno " + aluno.getMatricula() + " #" + rodada);
+            } else {
+                ((Matricula) entity).setDataMatricula(LocalDate.now().minusDays(rodada % 3650));
+            }
+        }
+        em.flush();
+    }
+}
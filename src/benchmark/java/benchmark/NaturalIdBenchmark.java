@@ -0,0 +1,95 @@
+package benchmark;
+
+import model.dao.AlunoDAO;
+import model.dao.CursoDAO;
+import model.entities.Aluno;
+import model.entities.Curso;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import util.JPAUtil;
+
+import javax.persistence.EntityManager;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compara a busca por matrícula/código via JPQL (implementação anterior)
+ * com a busca por identificador natural usando o cache de segundo nível
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 3)
+@Measurement(iterations = 5, time = 3)
+@Fork(1)
+public class NaturalIdBenchmark {
+
+    private final AlunoDAO alunoDAO = new AlunoDAO();
+    private final CursoDAO cursoDAO = new CursoDAO();
+    private final String sufixo = Long.toString(System.nanoTime() % 1_000_000L, 36);
+    private final String matricula = "NB" + sufixo;
+    private final String codigo = "NB" + sufixo;
+    private Aluno aluno;
+    private Curso curso;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        aluno = alunoDAO.save(new Aluno("Aluno Benchmark", matricula, matricula + "@bench.local"));
+        curso = cursoDAO.save(new Curso("Curso Benchmark", codigo));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        alunoDAO.delete(aluno.getId());
+        cursoDAO.delete(curso.getId());
+        JPAUtil.close();
+    }
+
+    @Benchmark
+    public Aluno alunoPorJpql() {
+        EntityManager em = JPAUtil.getEntityManager();
+        try {
+            List<Aluno> results = em.createQuery(
+                    "SELECT a FROM Aluno a WHERE a.matricula = :matricula", Aluno.class)
+                    .setParameter("matricula", matricula)
+                    .getResultList();
+            return results.isEmpty() ? null : results.get(0);
+        } finally {
+            em.close();
+        }
+    }
+
+    @Benchmark
+    public Aluno alunoPorNaturalId() {
+        return alunoDAO.findByMatricula(matricula);
+    }
+
+    @Benchmark
+    public Curso cursoPorJpql() {
+        EntityManager em = JPAUtil.getEntityManager();
+        try {
+            List<Curso> results = em.createQuery(
+                    "SELECT c FROM Curso c WHERE c.codigo = :codigo", Curso.class)
+                    .setParameter("codigo", codigo)
+                    .getResultList();
+            return results.isEmpty() ? null : results.get(0);
+        } finally {
+            em.close();
+        }
+    }
+
+    @Benchmark
+    public Curso cursoPorNaturalId() {
+        return cursoDAO.findByCodigo(codigo);
+    }
+}
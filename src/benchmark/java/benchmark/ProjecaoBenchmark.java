@@ -0,0 +1,107 @@
+package benchmark;
+
+import model.dao.AlunoDAO;
+import model.dao.CursoDAO;
+import model.dao.MatriculaDAO;
+import model.dto.AlunoResumo;
+import model.dto.MatriculaLinha;
+import model.entities.Aluno;
+import model.entities.Curso;
+import model.entities.Matricula;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import util.JPAUtil;
+
+import javax.persistence.EntityManager;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compara listagens com entidades gerenciadas (findAll, findByCurso) com as
+ * projeções DTO (findAllResumo, findLinhasByCurso)
+ * Para ver a memória alocada por operação, rode com o profiler de GC:
+ * mvn -Pbenchmark compile exec:exec -Djmh.args="Projecao -prof gc"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 3)
+@Measurement(iterations = 5, time = 3)
+@Fork(1)
+public class ProjecaoBenchmark {
+
+    @Param({"5000"})
+    public int alunos;
+
+    private final AlunoDAO alunoDAO = new AlunoDAO();
+    private final CursoDAO cursoDAO = new CursoDAO();
+    private final MatriculaDAO matriculaDAO = new MatriculaDAO();
+    private final String prefixo = "PB" + Long.toString(System.nanoTime() % 1_000_000L, 36);
+    private Curso curso;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        curso = cursoDAO.save(new Curso("Curso " + prefixo, prefixo));
+        List<Aluno> novos = new ArrayList<>(alunos);
+        for (int i = 0; i < alunos; i++) {
+            String matricula = prefixo + i;
+            novos.add(new Aluno("Aluno " + matricula, matricula, matricula + "@bench.local"));
+        }
+        alunoDAO.saveAll(novos);
+        List<Matricula> matriculas = new ArrayList<>(alunos);
+        for (Aluno aluno : novos) {
+            matriculas.add(new Matricula(aluno, curso));
+        }
+        matriculaDAO.saveAll(matriculas);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        EntityManager em = JPAUtil.getEntityManager();
+        try {
+            em.getTransaction().begin();
+            em.createQuery("DELETE FROM Matricula m WHERE m.curso.id = :cursoId")
+                    .setParameter("cursoId", curso.getId()).executeUpdate();
+            em.createQuery("DELETE FROM Aluno a WHERE a.matricula LIKE :prefixo")
+                    .setParameter("prefixo", prefixo + "%").executeUpdate();
+            em.createQuery("DELETE FROM Curso c WHERE c.id = :cursoId")
+                    .setParameter("cursoId", curso.getId()).executeUpdate();
+            em.getTransaction().commit();
+        } finally {
+            em.close();
+        }
+        JPAUtil.close();
+    }
+
+    @Benchmark
+    public List<Aluno> alunosFindAll() {
+        return alunoDAO.findAll();
+    }
+
+    @Benchmark
+    public List<AlunoResumo> alunosFindAllResumo() {
+        return alunoDAO.findAllResumo();
+    }
+
+    @Benchmark
+    public List<Matricula> matriculasFindByCurso() {
+        return matriculaDAO.findByCurso(curso.getId());
+    }
+
+    @Benchmark
+    public List<MatriculaLinha> matriculasFindLinhasByCurso() {
+        return matriculaDAO.findLinhasByCurso(curso.getId());
+    }
+}
@@ -0,0 +1,89 @@
+package benchmark;
+
+import model.dao.AlunoDAO;
+import model.entities.Aluno;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import util.JPAUtil;
+
+import javax.persistence.EntityManager;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compara a inserção de alunos um a um (save) com a inserção em lote (saveAll)
+ * O resultado (ops/s) corresponde a linhas inseridas por segundo
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class SaveAllBenchmark {
+
+    static final int ROWS = 1000;
+
+    private final AlunoDAO alunoDAO = new AlunoDAO();
+    private final String prefixo = "SB" + Long.toString(System.nanoTime() % 1_000_000L, 36);
+    private long sequencia;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        JPAUtil.isOpen();
+    }
+
+    @TearDown(Level.Iteration)
+    public void limpar() {
+        EntityManager em = JPAUtil.getEntityManager();
+        try {
+            em.getTransaction().begin();
+            em.createQuery("DELETE FROM Aluno a WHERE a.matricula LIKE :prefixo")
+                    .setParameter("prefixo", prefixo + "%")
+                    .executeUpdate();
+            em.getTransaction().commit();
+        } finally {
+            em.close();
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        JPAUtil.close();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public void saveUmAUm() {
+        for (Aluno aluno : novosAlunos()) {
+            alunoDAO.save(aluno);
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public int saveAll() {
+        return alunoDAO.saveAll(novosAlunos());
+    }
+
+    private List<Aluno> novosAlunos() {
+        List<Aluno> alunos = new ArrayList<>(ROWS);
+        for (int i = 0; i < ROWS; i++) {
+            String matricula = prefixo + (sequencia++);
+            alunos.add(new Aluno("Aluno " + matricula, matricula, matricula + "@bench.local"));
+        }
+        return alunos;
+    }
+}
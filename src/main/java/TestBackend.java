@@ -1,15 +1,27 @@
 import model.dao.AlunoDAO;
 import model.dao.CursoDAO;
 import model.dao.DisciplinaDAO;
+import model.dao.EstatisticasDAO;
+import model.dao.Exportador;
 import model.dao.MatriculaDAO;
+import model.dto.Estatisticas;
 import model.entities.Aluno;
 import model.entities.Curso;
 import model.entities.Disciplina;
 import model.entities.Matricula;
+import org.hibernate.stat.Statistics;
+import util.HibernateStats;
 import util.JPAUtil;
+import util.UnitOfWork;
 
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.stream.Collectors;
 
 /**
  * Classe de teste para verificar se o backend esta funcionando corretamente
@@ -88,13 +100,117 @@ public class TestBackend {
             List<Matricula> matriculasAluno = matriculaDAO.findByAluno(aluno.getId());
             matriculasAluno.forEach(m -> System.out.println("     - " + m));
             
+            // Aluno e curso sao LAZY em Matricula: cada listagem deve ser uma unica consulta
+            System.out.println("\n  -> Verificando consultas por listagem de matriculas:");
+            List<Aluno> turma = new ArrayList<>();
+            for (int i = 1; i <= 20; i++) {
+                turma.add(new Aluno("Aluno Turma " + i, "2024T" + i, "turma" + i + "@email.com"));
+            }
+            alunoDAO.saveAll(turma);
+            List<Matricula> novasMatriculas = new ArrayList<>();
+            for (Aluno a : turma) {
+                novasMatriculas.add(new Matricula(a, curso));
+            }
+            matriculaDAO.saveAll(novasMatriculas);
+            
+            Long cursoId = curso.getId();
+            Long alunoId = aluno.getId();
+            verificarConsultas("findByCurso", 1, () ->
+                matriculaDAO.findByCurso(cursoId).forEach(m -> m.getAluno().getNome().length()));
+            verificarConsultas("findByCursoWithAlunos", 1, () ->
+                matriculaDAO.findByCursoWithAlunos(cursoId).forEach(m -> m.getAluno().getNome().length()));
+            verificarConsultas("findByAluno", 1, () ->
+                matriculaDAO.findByAluno(alunoId).forEach(m -> m.getCurso().getNome().length()));
+            verificarConsultas("findByStatus", 1, () ->
+                matriculaDAO.findByStatus(Matricula.StatusMatricula.ATIVA).forEach(m -> m.getAluno().getNome().length()));
+            verificarConsultas("findAll", 1, () ->
+                matriculaDAO.findAll().forEach(m -> m.getCurso().getNome().length()));
+            
+            // Varias chamadas de DAO em uma UnitOfWork: uma conexao e um commit
+            System.out.println("\n  -> Matriculando em uma unica transacao (UnitOfWork):");
+            long conexoesAntes = JPAUtil.getPoolMetrics().getAcquireCount();
+            long commitsAntes = JPAUtil.getStatistics().getSuccessfulTransactionCount();
+            Matricula matriculaUow = UnitOfWork.execute(() -> {
+                Aluno alunoTurma = alunoDAO.findByMatricula("2024T1");
+                Curso bancoDeDados = cursoDAO.save(new Curso("Banco de Dados", "BD-01"));
+                if (matriculaDAO.existsActiveMatricula(alunoTurma.getId(), bancoDeDados.getId())) {
+                    throw new IllegalStateException("Aluno ja matriculado");
+                }
+                return matriculaDAO.save(new Matricula(alunoTurma, bancoDeDados));
+            });
+            long conexoes = JPAUtil.getPoolMetrics().getAcquireCount() - conexoesAntes;
+            long commits = JPAUtil.getStatistics().getSuccessfulTransactionCount() - commitsAntes;
+            System.out.println("     - " + matriculaUow + ": " + conexoes + " conexao(oes), " + commits + " commit(s)");
+            if (conexoes != 1 || commits != 1) {
+                throw new IllegalStateException("UnitOfWork usou " + conexoes + " conexoes e " +
+                    commits + " commits (esperado: 1 e 1)");
+            }
+            
+            System.out.println("\n  -> Buscando curso por codigo (segunda busca vem do cache):");
+            cursoDAO.findByCodigo("ENSO-01");
+            Curso cursoEncontrado = cursoDAO.findByCodigo("ENSO-01");
+            System.out.println("     - " + cursoEncontrado);
+            
+            // Grade do curso: cada edicao e um unico comando, sem carregar a grade,
+            // e a grade em cache e descartada
+            System.out.println("\n  -> Editando a grade do curso (so as linhas alteradas):");
+            Long pooId = disciplina.getId();
+            Long estruturasId = disciplinaDAO.save(new Disciplina("Estruturas de Dados", "ED-101", 60)).getId();
+            Long modelagemId = disciplinaDAO.save(new Disciplina("Modelagem de Dados", "MD-101", 60)).getId();
+            System.out.println("     - grade inicial: " + gradeDoCurso(cursoDAO, cursoId));
+            verificarConsultas("addDisciplina", 1, () -> cursoDAO.addDisciplina(cursoId, pooId));
+            verificarConsultas("addDisciplina (ja na grade)", 1, () -> cursoDAO.addDisciplina(cursoId, pooId));
+            verificarConsultas("replaceCurriculum", 1, () ->
+                cursoDAO.replaceCurriculum(cursoId, List.of(pooId, estruturasId, modelagemId)));
+            verificarConsultas("removeDisciplina", 1, () -> cursoDAO.removeDisciplina(cursoId, estruturasId));
+            List<String> grade = gradeDoCurso(cursoDAO, cursoId);
+            System.out.println("     - grade final: " + grade);
+            if (!grade.equals(List.of("MD-101", "POO-101"))) {
+                throw new IllegalStateException("Grade inesperada: " + grade + " (esperado: [MD-101, POO-101])");
+            }
+            
             // 5. Estatisticas
+            // Os totais vem dos contadores mantidos por triggers, em uma unica consulta
             System.out.println("\n5. Estatisticas do banco de dados:");
-            System.out.println("   - Total de alunos: " + alunoDAO.count());
-            System.out.println("   - Total de cursos: " + cursoDAO.count());
-            System.out.println("   - Total de disciplinas: " + disciplinaDAO.count());
-            System.out.println("   - Total de matriculas: " + matriculaDAO.count());
-            
+            Estatisticas estatisticas = new EstatisticasDAO().carregar();
+            System.out.println("   - Total de alunos: " + estatisticas.getTotalAlunos());
+            System.out.println("   - Total de cursos: " + estatisticas.getTotalCursos());
+            System.out.println("   - Total de disciplinas: " + estatisticas.getTotalDisciplinas());
+            System.out.println("   - Total de matriculas: " + estatisticas.getTotalMatriculas());
+            System.out.println("   - Matriculas por status: " + estatisticas.getMatriculasPorStatus());
+            estatisticas.getMatriculasPorCurso().forEach(c ->
+                System.out.println("     - " + c.getCursoNome() + ": " + c.getPorStatus()));
+            if (estatisticas.getTotalAlunos() != alunoDAO.count()
+                    || estatisticas.getTotalCursos() != cursoDAO.count()
+                    || estatisticas.getTotalDisciplinas() != disciplinaDAO.count()
+                    || estatisticas.getTotalMatriculas() != matriculaDAO.count()) {
+                throw new IllegalStateException("Contadores divergem de COUNT(*): " + estatisticas);
+            }
+            System.out.println("   - " + JPAUtil.getPoolMetrics());
+            System.out.println("   - Cache de segundo nivel: " +
+                JPAUtil.getStatistics().getSecondLevelCacheHitCount() + " acertos, " +
+                JPAUtil.getStatistics().getSecondLevelCacheMissCount() + " falhas; cache de consultas: " +
+                JPAUtil.getStatistics().getQueryCacheHitCount() + " acertos, " +
+                JPAUtil.getStatistics().getQueryCacheMissCount() + " falhas");
+            // As mesmas estatisticas, lidas pelo MBean (JConsole/VisualVM)
+            Object resumo = ManagementFactory.getPlatformMBeanServer()
+                .invoke(new ObjectName(HibernateStats.OBJECT_NAME), "resumo", null, null);
+            System.out.println("   - " + resumo);
+
+            // 6. Exportacao (COPY TO STDOUT direto para o arquivo)
+            System.out.println("\n6. Testando exportacao...");
+            Path diretorio = Files.createTempDirectory("sica-exportacao");
+            Exportador exportador = new Exportador();
+            Exportador.Resultado alunosCsv = exportador.exportarAlunos(
+                diretorio.resolve("alunos.csv"), Exportador.Formato.CSV);
+            Exportador.Resultado matriculasJson = exportador.exportarMatriculas(
+                diretorio.resolve("matriculas.jsonl.gz"), Exportador.Formato.JSONL);
+            System.out.println("   - alunos.csv: " + alunosCsv);
+            System.out.println("   - matriculas.jsonl.gz: " + matriculasJson);
+            if (alunosCsv.getLinhas() != alunoDAO.count() || matriculasJson.getLinhas() != matriculaDAO.count()) {
+                throw new IllegalStateException("Exportacao divergente de COUNT(*)");
+            }
+
             System.out.println("\n===========================================");
             System.out.println("TODOS OS TESTES PASSARAM COM SUCESSO!");
             System.out.println("===========================================");
@@ -109,4 +225,27 @@ public class TestBackend {
             System.out.println("\n Recursos liberados. Teste finalizado.");
         }
     }
+    
+    /**
+     * Codigos das disciplinas da grade, lidos pela entidade (cache de segundo nivel)
+     */
+    private static List<String> gradeDoCurso(CursoDAO cursoDAO, Long cursoId) {
+        return UnitOfWork.execute(() -> cursoDAO.findById(cursoId).getDisciplinas().stream()
+            .map(Disciplina::getCodigo).sorted().collect(Collectors.toList()));
+    }
+    
+    /**
+     * Executa a operacao e confere quantos statements SQL ela preparou
+     */
+    private static void verificarConsultas(String descricao, long esperado, Runnable operacao) {
+        Statistics stats = JPAUtil.getStatistics();
+        long antes = stats.getPrepareStatementCount();
+        operacao.run();
+        long executadas = stats.getPrepareStatementCount() - antes;
+        System.out.println("     - " + descricao + ": " + executadas + " consulta(s)");
+        if (executadas != esperado) {
+            throw new IllegalStateException(descricao + " executou " + executadas +
+                " consultas (esperado: " + esperado + ")");
+        }
+    }
 }
@@ -0,0 +1,262 @@
+package model.dao;
+
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyManager;
+import util.JPAUtil;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Importa alunos de um arquivo CSV usando COPY FROM STDIN do PostgreSQL
+ *
+ * O arquivo é enviado em streaming para uma tabela temporária (memória constante),
+ * validado por SQL e só então as linhas válidas são inseridas em alunos.
+ * Linhas com campos inválidos ou que conflitam em matrícula/email (com o banco ou
+ * com outra linha do próprio arquivo) são rejeitadas e reportadas, sem abortar a carga.
+ *
+ * Formato esperado (com cabeçalho): nome,matricula,email,data_nascimento,telefone
+ * com data_nascimento no formato AAAA-MM-DD (opcional) e telefone opcional.
+ * Erros estruturais no CSV (ex.: número de colunas errado) abortam a importação.
+ */
+public class AlunoCsvImporter {
+
+    /**
+     * Quantidade máxima de rejeições detalhadas no resultado
+     */
+    public static final int MAX_REJEICOES_REPORTADAS = 1000;
+
+    private static final String CREATE_STAGING =
+        "CREATE TEMP TABLE alunos_importacao (" +
+        "  linha bigserial, nome text, matricula text, email text," +
+        "  data_nascimento text, telefone text, motivo text" +
+        ") ON COMMIT DROP";
+
+    private static final String COPY_STAGING =
+        "COPY alunos_importacao (nome, matricula, email, data_nascimento, telefone) " +
+        "FROM STDIN WITH (FORMAT csv, HEADER true)";
+
+    private static final String CREATE_DATA_VALIDA =
+        "CREATE OR REPLACE FUNCTION pg_temp.data_valida(valor text) RETURNS boolean AS $$ " +
+        "BEGIN PERFORM valor::date; RETURN true; " +
+        "EXCEPTION WHEN others THEN RETURN false; END $$ LANGUAGE plpgsql";
+
+    private static final String[] VALIDACOES = {
+        "UPDATE alunos_importacao SET nome = trim(nome), matricula = trim(matricula), " +
+        "  email = trim(email), data_nascimento = nullif(trim(data_nascimento), ''), " +
+        "  telefone = nullif(trim(telefone), '')",
+
+        "UPDATE alunos_importacao SET motivo = 'campo obrigatorio vazio' " +
+        "WHERE coalesce(nome, '') = '' OR coalesce(matricula, '') = '' OR coalesce(email, '') = ''",
+
+        "UPDATE alunos_importacao SET motivo = 'campo excede o tamanho maximo' " +
+        "WHERE motivo IS NULL AND (length(nome) > 100 OR length(matricula) > 20 " +
+        "  OR length(email) > 100 OR length(telefone) > 20)",
+
+        "UPDATE alunos_importacao SET motivo = 'data_nascimento invalida' " +
+        "WHERE motivo IS NULL AND data_nascimento IS NOT NULL " +
+        "  AND (data_nascimento !~ '^\\d{4}-\\d{2}-\\d{2}$' " +
+        // Só datas com dia acima de 28 precisam da conversão (que é mais cara)
+        "    OR (data_nascimento !~ '^\\d{4}-(0[1-9]|1[0-2])-(0[1-9]|1\\d|2[0-8])$' " +
+        "        AND NOT pg_temp.data_valida(data_nascimento)))",
+
+        "UPDATE alunos_importacao s SET motivo = 'matricula repetida no arquivo' " +
+        "FROM (SELECT linha, row_number() OVER (PARTITION BY matricula ORDER BY linha) AS ordem " +
+        "      FROM alunos_importacao WHERE motivo IS NULL) d " +
+        "WHERE s.linha = d.linha AND d.ordem > 1",
+
+        "UPDATE alunos_importacao s SET motivo = 'email repetido no arquivo' " +
+        "FROM (SELECT linha, row_number() OVER (PARTITION BY email ORDER BY linha) AS ordem " +
+        "      FROM alunos_importacao WHERE motivo IS NULL) d " +
+        "WHERE s.linha = d.linha AND d.ordem > 1",
+
+        "UPDATE alunos_importacao s SET motivo = 'matricula ja cadastrada' " +
+        "WHERE motivo IS NULL AND EXISTS (SELECT 1 FROM alunos a WHERE a.matricula = s.matricula)",
+
+        "UPDATE alunos_importacao s SET motivo = 'email ja cadastrado' " +
+        "WHERE motivo IS NULL AND EXISTS (SELECT 1 FROM alunos a WHERE a.email = s.email)"
+    };
+
+    // Linhas que passaram na validação mas perderam a corrida para uma inserção concorrente
+    private static final String INSERT_ALUNOS =
+        "WITH inseridos AS (" +
+        "  INSERT INTO alunos (id, nome, matricula, email, data_nascimento, telefone) " +
+        "  SELECT nextval('alunos_seq'), nome, matricula, email, data_nascimento::date, telefone " +
+        "  FROM alunos_importacao WHERE motivo IS NULL ORDER BY linha " +
+        "  ON CONFLICT DO NOTHING RETURNING matricula" +
+        ") " +
+        "UPDATE alunos_importacao s SET motivo = 'conflito com cadastro concorrente' " +
+        "WHERE s.motivo IS NULL AND NOT EXISTS (SELECT 1 FROM inseridos i WHERE i.matricula = s.matricula)";
+
+    private static final String SELECT_REJEITADAS =
+        "SELECT linha, matricula, email, motivo FROM alunos_importacao " +
+        "WHERE motivo IS NOT NULL ORDER BY linha";
+
+    /**
+     * Importa alunos de um arquivo CSV em UTF-8
+     * @param arquivo Caminho do arquivo CSV
+     * @return Resultado com a quantidade importada e as linhas rejeitadas
+     */
+    public Resultado importar(Path arquivo) {
+        try (Reader reader = Files.newBufferedReader(arquivo, StandardCharsets.UTF_8)) {
+            return importar(reader);
+        } catch (IOException e) {
+            throw new RuntimeException("Erro ao ler arquivo " + arquivo, e);
+        }
+    }
+
+    /**
+     * Importa alunos a partir de um Reader com conteúdo CSV
+     * Toda a carga ocorre em uma única transação
+     * @param csv Conteúdo CSV (com cabeçalho)
+     * @return Resultado com a quantidade importada e as linhas rejeitadas
+     */
+    public Resultado importar(Reader csv) {
+        long inicio = System.nanoTime();
+        try (Connection conn = JPAUtil.getDataSource().getConnection()) {
+            boolean autoCommit = conn.getAutoCommit();
+            conn.setAutoCommit(false);
+            try (Statement st = conn.createStatement()) {
+                st.execute(CREATE_STAGING);
+                st.execute(CREATE_DATA_VALIDA);
+
+                CopyManager copyManager = conn.unwrap(PGConnection.class).getCopyAPI();
+                long total = copyManager.copyIn(COPY_STAGING, csv);
+                st.execute("ANALYZE alunos_importacao");
+
+                for (String validacao : VALIDACOES) {
+                    st.executeUpdate(validacao);
+                }
+                st.executeUpdate(INSERT_ALUNOS);
+
+                List<Rejeicao> rejeicoes = new ArrayList<>();
+                long totalRejeitadas = 0;
+                try (ResultSet rs = st.executeQuery(SELECT_REJEITADAS)) {
+                    while (rs.next()) {
+                        totalRejeitadas++;
+                        if (rejeicoes.size() < MAX_REJEICOES_REPORTADAS) {
+                            // +1 por causa da linha de cabeçalho
+                            rejeicoes.add(new Rejeicao(rs.getLong(1) + 1, rs.getString(2),
+                                    rs.getString(3), rs.getString(4)));
+                        }
+                    }
+                }
+                conn.commit();
+                // Consultas em cache (ex.: findByEmail) podem ter guardado "não encontrado"
+                JPAUtil.evictQueryCache();
+                long duracaoMs = (System.nanoTime() - inicio) / 1_000_000;
+                return new Resultado(total, total - totalRejeitadas, totalRejeitadas, rejeicoes, duracaoMs);
+            } catch (SQLException | IOException | RuntimeException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(autoCommit);
+            }
+        } catch (SQLException | IOException e) {
+            throw new RuntimeException("Erro ao importar alunos: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Resultado de uma importação
+     */
+    public static class Resultado {
+        private final long lidas;
+        private final long importadas;
+        private final long rejeitadas;
+        private final List<Rejeicao> rejeicoes;
+        private final long duracaoMs;
+
+        Resultado(long lidas, long importadas, long rejeitadas, List<Rejeicao> rejeicoes, long duracaoMs) {
+            this.lidas = lidas;
+            this.importadas = importadas;
+            this.rejeitadas = rejeitadas;
+            this.rejeicoes = Collections.unmodifiableList(rejeicoes);
+            this.duracaoMs = duracaoMs;
+        }
+
+        public long getLidas() {
+            return lidas;
+        }
+
+        public long getImportadas() {
+            return importadas;
+        }
+
+        public long getRejeitadas() {
+            return rejeitadas;
+        }
+
+        /**
+         * @return Detalhe das primeiras MAX_REJEICOES_REPORTADAS linhas rejeitadas
+         */
+        public List<Rejeicao> getRejeicoes() {
+            return rejeicoes;
+        }
+
+        public long getDuracaoMs() {
+            return duracaoMs;
+        }
+
+        @Override
+        public String toString() {
+            return "Resultado{" +
+                    "lidas=" + lidas +
+                    ", importadas=" + importadas +
+                    ", rejeitadas=" + rejeitadas +
+                    ", duracaoMs=" + duracaoMs +
+                    '}';
+        }
+    }
+
+    /**
+     * Linha do CSV rejeitada na importação
+     */
+    public static class Rejeicao {
+        private final long linha;
+        private final String matricula;
+        private final String email;
+        private final String motivo;
+
+        Rejeicao(long linha, String matricula, String email, String motivo) {
+            this.linha = linha;
+            this.matricula = matricula;
+            this.email = email;
+            this.motivo = motivo;
+        }
+
+        /**
+         * @return Número do registro no arquivo (o cabeçalho é a linha 1)
+         */
+        public long getLinha() {
+            return linha;
+        }
+
+        public String getMatricula() {
+            return matricula;
+        }
+
+        public String getEmail() {
+            return email;
+        }
+
+        public String getMotivo() {
+            return motivo;
+        }
+
+        @Override
+        public String toString() {
+            return "linha " + linha + " (" + matricula + ", " + email + "): " + motivo;
+        }
+    }
+}
@@ -1,9 +1,10 @@
 package model.dao;
 
+import model.dto.AlunoResumo;
 import model.entities.Aluno;
-import util.JPAUtil;
+import org.hibernate.Session;
+import org.hibernate.jpa.QueryHints;
 
-import javax.persistence.EntityManager;
 import javax.persistence.TypedQuery;
 import java.util.List;
 
@@ -17,21 +18,16 @@ public class AlunoDAO extends GenericDAO<Aluno> {
     }
     
     /**
-     * Busca aluno por matrícula
+     * Busca aluno por matrícula (identificador natural)
+     * A resolução matrícula -> ID e o próprio aluno vêm do cache de segundo nível
+     * quando disponíveis, sem consulta ao banco
      * @param matricula Matrícula do aluno
      * @return Aluno encontrado ou null
      */
     public Aluno findByMatricula(String matricula) {
-        EntityManager em = JPAUtil.getEntityManager();
-        try {
-            TypedQuery<Aluno> query = em.createQuery(
-                "SELECT a FROM Aluno a WHERE a.matricula = :matricula", Aluno.class);
-            query.setParameter("matricula", matricula);
-            List<Aluno> results = query.getResultList();
-            return results.isEmpty() ? null : results.get(0);
-        } finally {
-            em.close();
-        }
+        return read(em -> {
+            return em.unwrap(Session.class).bySimpleNaturalId(Aluno.class).load(matricula);
+        });
     }
     
     /**
@@ -40,32 +36,64 @@ public class AlunoDAO extends GenericDAO<Aluno> {
      * @return Aluno encontrado ou null
      */
     public Aluno findByEmail(String email) {
-        EntityManager em = JPAUtil.getEntityManager();
-        try {
+        return read(em -> {
             TypedQuery<Aluno> query = em.createQuery(
                 "SELECT a FROM Aluno a WHERE a.email = :email", Aluno.class);
             query.setParameter("email", email);
+            query.setHint(QueryHints.HINT_CACHEABLE, true);
             List<Aluno> results = query.getResultList();
             return results.isEmpty() ? null : results.get(0);
-        } finally {
-            em.close();
-        }
+        });
     }
     
     /**
-     * Busca alunos por nome (busca parcial)
+     * Busca alunos por nome (busca parcial, sem distinção de acentos e maiúsculas)
+     * Usa o índice trigram sobre o nome normalizado
      * @param nome Nome ou parte do nome
      * @return Lista de alunos encontrados
      */
     public List<Aluno> findByNome(String nome) {
-        EntityManager em = JPAUtil.getEntityManager();
-        try {
+        return read(em -> {
             TypedQuery<Aluno> query = em.createQuery(
-                "SELECT a FROM Aluno a WHERE LOWER(a.nome) LIKE LOWER(:nome)", Aluno.class);
-            query.setParameter("nome", "%" + nome + "%");
+                "SELECT a FROM Aluno a WHERE FUNCTION('sica_normalizar', a.nome) " +
+                "LIKE CONCAT('%', FUNCTION('sica_normalizar', :nome), '%')", Aluno.class);
+            query.setParameter("nome", escapeLike(nome));
             return query.getResultList();
-        } finally {
-            em.close();
-        }
+        });
+    }
+    
+    /**
+     * Lista uma página de alunos ordenados por nome (paginação keyset)
+     * @param lastNome Nome do último item da página anterior (null para a primeira página)
+     * @param lastId ID do último item da página anterior
+     * @param limit Quantidade máxima de itens
+     * @return Página de alunos
+     */
+    public Pagina<Aluno> findPageByNomeAfter(String lastNome, Long lastId, int limit) {
+        return findPageAfter("nome", lastNome, lastId, limit);
+    }
+    
+    /**
+     * Busca alunos por nome ordenados por relevância (caixa de busca)
+     * Ignora acentos e maiúsculas e tolera pequenos erros de digitação
+     * @param termo Termo digitado
+     * @param limite Quantidade máxima de resultados
+     * @return Até limite alunos, dos mais para os menos parecidos
+     */
+    public List<Aluno> searchByNome(String termo, int limite) {
+        return searchByText("nome", termo, limite);
+    }
+    
+    /**
+     * Lista resumos de todos os alunos ordenados por nome, sem carregar entidades
+     * Mais leve que findAll() para listagens que só mostram id, nome e matrícula
+     * @return Lista de resumos
+     */
+    public List<AlunoResumo> findAllResumo() {
+        return read(em -> {
+            return em.createQuery(
+                "SELECT NEW model.dto.AlunoResumo(a.id, a.nome, a.matricula) FROM Aluno a ORDER BY a.nome, a.id",
+                AlunoResumo.class).getResultList();
+        });
     }
 }
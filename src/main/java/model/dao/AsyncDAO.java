@@ -0,0 +1,139 @@
+package model.dao;
+
+import javafx.application.Platform;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Executa as operações de um DAO fora da thread chamadora, devolvendo CompletableFuture
+ * Evita travar a thread do JavaFX enquanto a consulta roda no banco
+ *
+ * Exemplo:
+ * <pre>
+ * daos.alunos().call(dao -&gt; dao.searchByNome(termo, 20))
+ *     .thenAcceptAsync(tabela.getItems()::setAll, AsyncDAO.FX_THREAD);
+ * </pre>
+ *
+ * O cancelamento do future devolvido (cancel) impede a execução se a operação ainda
+ * estiver na fila e interrompe a thread se já estiver rodando
+ * @param <D> Tipo do DAO
+ */
+public class AsyncDAO<D> {
+    
+    /**
+     * Executor que roda as tarefas na thread do JavaFX (Platform.runLater)
+     * Exige que o toolkit do JavaFX já tenha sido iniciado
+     */
+    public static final Executor FX_THREAD = Platform::runLater;
+    
+    private final D dao;
+    private final Executor executor;
+    
+    public AsyncDAO(D dao, Executor executor) {
+        this.dao = dao;
+        this.executor = executor;
+    }
+    
+    /**
+     * Executa uma operação do DAO de forma assíncrona
+     * @param operacao Operação a executar (ex.: dao -&gt; dao.findById(id))
+     * @return Future com o resultado; cancelável
+     */
+    public <R> CompletableFuture<R> call(Function<? super D, ? extends R> operacao) {
+        TaskFuture<R> result = new TaskFuture<>();
+        FutureTask<Void> task = new FutureTask<>(() -> {
+            if (result.isDone()) {
+                return;
+            }
+            try {
+                result.complete(operacao.apply(dao));
+            } catch (Throwable e) {
+                result.completeExceptionally(e);
+            }
+        }, null) {
+            // Tarefa descartada pelo executor sem rodar (ex.: encerrado com shutdownNow)
+            @Override
+            protected void done() {
+                if (isCancelled() && !result.isDone()) {
+                    result.completeExceptionally(new RejectedExecutionException("Executor encerrado antes da operacao"));
+                }
+            }
+        };
+        result.task = task;
+        try {
+            executor.execute(task);
+        } catch (RuntimeException e) {
+            // Executor encerrado ou fila cheia
+            result.completeExceptionally(e);
+        }
+        return result;
+    }
+    
+    /**
+     * Executa uma operação sem retorno do DAO de forma assíncrona
+     * @param operacao Operação a executar (ex.: dao -&gt; dao.delete(id))
+     * @return Future concluído quando a operação terminar; cancelável
+     */
+    public CompletableFuture<Void> run(Consumer<? super D> operacao) {
+        return call(d -> {
+            operacao.accept(d);
+            return null;
+        });
+    }
+    
+    /**
+     * Executa uma operação do DAO e entrega o resultado (ou o erro) na thread do JavaFX
+     * Nenhum callback é chamado se o future for cancelado
+     * @param operacao Operação a executar
+     * @param onSuccess Recebe o resultado na thread do JavaFX
+     * @param onError Recebe o erro na thread do JavaFX
+     * @return Future da operação, para permitir o cancelamento
+     */
+    public <R> CompletableFuture<R> callOnFx(Function<? super D, ? extends R> operacao,
+                                             Consumer<? super R> onSuccess,
+                                             Consumer<? super Throwable> onError) {
+        CompletableFuture<R> future = call(operacao);
+        future.whenCompleteAsync((resultado, erro) -> {
+            if (future.isCancelled()) {
+                return;
+            }
+            if (erro != null) {
+                onError.accept(unwrap(erro));
+            } else {
+                onSuccess.accept(resultado);
+            }
+        }, FX_THREAD);
+        return future;
+    }
+    
+    private static Throwable unwrap(Throwable erro) {
+        if (erro instanceof CompletionException && erro.getCause() != null) {
+            return erro.getCause();
+        }
+        return erro;
+    }
+    
+    /**
+     * CompletableFuture que repassa o cancelamento para a tarefa do executor
+     */
+    private static class TaskFuture<R> extends CompletableFuture<R> {
+        private volatile Future<?> task;
+        
+        @Override
+        public boolean cancel(boolean mayInterruptIfRunning) {
+            boolean cancelled = super.cancel(mayInterruptIfRunning);
+            Future<?> t = task;
+            if (cancelled && t != null) {
+                t.cancel(true);
+            }
+            return cancelled;
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package model.dao;
+
+import util.DAOExecutor;
+import util.JPAUtil;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Fachada assíncrona para os DAOs, pensada para o cliente JavaFX
+ * Todas as operações compartilham um executor limitado ao tamanho do pool de conexões
+ * (virtual threads quando o JDK suporta). Crie uma instância ao iniciar a aplicação
+ * e chame close() ao encerrar
+ */
+public class AsyncDAOs implements AutoCloseable {
+    
+    private final ExecutorService executor;
+    private final AsyncDAO<AlunoDAO> alunos;
+    private final AsyncDAO<CursoDAO> cursos;
+    private final AsyncDAO<DisciplinaDAO> disciplinas;
+    private final AsyncDAO<MatriculaDAO> matriculas;
+    
+    public AsyncDAOs() {
+        this(DAOExecutor.create(JPAUtil.getPoolSize()));
+    }
+    
+    /**
+     * @param executor Executor das operações (encerrado em close())
+     */
+    public AsyncDAOs(ExecutorService executor) {
+        this.executor = executor;
+        this.alunos = new AsyncDAO<>(new AlunoDAO(), executor);
+        this.cursos = new AsyncDAO<>(new CursoDAO(), executor);
+        this.disciplinas = new AsyncDAO<>(new DisciplinaDAO(), executor);
+        this.matriculas = new AsyncDAO<>(new MatriculaDAO(), executor);
+    }
+    
+    public AsyncDAO<AlunoDAO> alunos() {
+        return alunos;
+    }
+    
+    public AsyncDAO<CursoDAO> cursos() {
+        return cursos;
+    }
+    
+    public AsyncDAO<DisciplinaDAO> disciplinas() {
+        return disciplinas;
+    }
+    
+    public AsyncDAO<MatriculaDAO> matriculas() {
+        return matriculas;
+    }
+    
+    /**
+     * Encerra o executor, aguardando até 10 segundos as operações em andamento
+     * As que não chegarem a rodar terminam com RejectedExecutionException
+     */
+    @Override
+    public void close() {
+        executor.shutdown();
+        try {
+            if (!executor.awaitTermination(10, TimeUnit.SECONDS)) {
+                cancelarPendentes();
+            }
+        } catch (InterruptedException e) {
+            cancelarPendentes();
+            Thread.currentThread().interrupt();
+        }
+    }
+    
+    // Tarefas ainda na fila não rodam mais: cancelá-las conclui os futures com erro
+    private void cancelarPendentes() {
+        for (Runnable pendente : executor.shutdownNow()) {
+            if (pendente instanceof Future) {
+                ((Future<?>) pendente).cancel(false);
+            }
+        }
+    }
+}
@@ -1,53 +1,171 @@
 package model.dao;
 
+import model.dto.CursoResumo;
 import model.entities.Curso;
-import util.JPAUtil;
+import org.hibernate.Session;
+import org.hibernate.cache.spi.CacheImplementor;
 
-import javax.persistence.EntityManager;
+import javax.persistence.Query;
 import javax.persistence.TypedQuery;
+import java.util.Collection;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
 
 /**
  * DAO para operações com a entidade Curso
  */
 public class CursoDAO extends GenericDAO<Curso> {
     
+    private static final String DISCIPLINAS = Curso.class.getName() + ".disciplinas";
+    
     public CursoDAO() {
         super(Curso.class);
     }
     
     /**
-     * Busca curso por código
+     * Busca curso por código (identificador natural)
+     * A resolução código -> ID e o próprio curso vêm do cache de segundo nível
+     * quando disponíveis, sem consulta ao banco
      * @param codigo Código do curso
      * @return Curso encontrado ou null
      */
     public Curso findByCodigo(String codigo) {
-        EntityManager em = JPAUtil.getEntityManager();
-        try {
-            TypedQuery<Curso> query = em.createQuery(
-                "SELECT c FROM Curso c WHERE c.codigo = :codigo", Curso.class);
-            query.setParameter("codigo", codigo);
-            List<Curso> results = query.getResultList();
-            return results.isEmpty() ? null : results.get(0);
-        } finally {
-            em.close();
-        }
+        return read(em -> {
+            return em.unwrap(Session.class).bySimpleNaturalId(Curso.class).load(codigo);
+        });
     }
     
     /**
-     * Busca cursos por nome (busca parcial)
+     * Busca cursos por nome (busca parcial, sem distinção de acentos e maiúsculas)
+     * Usa o índice trigram sobre o nome normalizado
      * @param nome Nome ou parte do nome
      * @return Lista de cursos encontrados
      */
     public List<Curso> findByNome(String nome) {
-        EntityManager em = JPAUtil.getEntityManager();
-        try {
+        return read(em -> {
             TypedQuery<Curso> query = em.createQuery(
-                "SELECT c FROM Curso c WHERE LOWER(c.nome) LIKE LOWER(:nome)", Curso.class);
-            query.setParameter("nome", "%" + nome + "%");
+                "SELECT c FROM Curso c WHERE FUNCTION('sica_normalizar', c.nome) " +
+                "LIKE CONCAT('%', FUNCTION('sica_normalizar', :nome), '%')", Curso.class);
+            query.setParameter("nome", escapeLike(nome));
             return query.getResultList();
-        } finally {
-            em.close();
+        });
+    }
+    
+    /**
+     * Lista uma página de cursos ordenados por nome (paginação keyset)
+     * @param lastNome Nome do último item da página anterior (null para a primeira página)
+     * @param lastId ID do último item da página anterior
+     * @param limit Quantidade máxima de itens
+     * @return Página de cursos
+     */
+    public Pagina<Curso> findPageByNomeAfter(String lastNome, Long lastId, int limit) {
+        return findPageAfter("nome", lastNome, lastId, limit);
+    }
+    
+    /**
+     * Busca cursos por nome ordenados por relevância (caixa de busca)
+     * Ignora acentos e maiúsculas e tolera pequenos erros de digitação
+     * @param termo Termo digitado
+     * @param limite Quantidade máxima de resultados
+     * @return Até limite cursos, dos mais para os menos parecidos
+     */
+    public List<Curso> searchByNome(String termo, int limite) {
+        return searchByText("nome", termo, limite);
+    }
+    
+    /**
+     * Lista resumos de todos os cursos ordenados por nome, sem carregar entidades
+     * Mais leve que findAll() para listagens que só mostram id, nome e código
+     * @return Lista de resumos
+     */
+    public List<CursoResumo> findAllResumo() {
+        return read(em -> {
+            return em.createQuery(
+                "SELECT NEW model.dto.CursoResumo(c.id, c.nome, c.codigo) FROM Curso c ORDER BY c.nome, c.id",
+                CursoResumo.class).getResultList();
+        });
+    }
+    
+    /**
+     * Adiciona uma disciplina à grade do curso, sem carregar a grade
+     * Um único comando, que insere só a linha nova em curso_disciplina
+     * @param cursoId ID do curso
+     * @param disciplinaId ID da disciplina
+     * @return true se foi adicionada, false se já estava na grade
+     */
+    public boolean addDisciplina(Long cursoId, Long disciplinaId) {
+        return editarGrade(cursoId,
+            "WITH alteradas AS (INSERT INTO curso_disciplina (curso_id, disciplina_id) " +
+            "VALUES (:cursoId, :disciplinaId) ON CONFLICT DO NOTHING RETURNING 1)",
+            Map.of("disciplinaId", disciplinaId)) > 0;
+    }
+    
+    /**
+     * Remove uma disciplina da grade do curso, sem carregar a grade
+     * @param cursoId ID do curso
+     * @param disciplinaId ID da disciplina
+     * @return true se foi removida, false se não estava na grade
+     */
+    public boolean removeDisciplina(Long cursoId, Long disciplinaId) {
+        return editarGrade(cursoId,
+            "WITH alteradas AS (DELETE FROM curso_disciplina " +
+            "WHERE curso_id = :cursoId AND disciplina_id = :disciplinaId RETURNING 1)",
+            Map.of("disciplinaId", disciplinaId)) > 0;
+    }
+    
+    /**
+     * Substitui a grade do curso pelas disciplinas informadas, em um único comando:
+     * remove só as que saíram e insere só as que entraram
+     * @param cursoId ID do curso
+     * @param disciplinaIds IDs da nova grade (vazio para esvaziar a grade)
+     * @return Quantidade de linhas inseridas mais removidas
+     */
+    public int replaceCurriculum(Long cursoId, Collection<Long> disciplinaIds) {
+        if (disciplinaIds.isEmpty()) {
+            return editarGrade(cursoId,
+                "WITH alteradas AS (DELETE FROM curso_disciplina WHERE curso_id = :cursoId RETURNING 1)",
+                Map.of());
         }
+        // Um único parâmetro (array), qualquer que seja o tamanho da grade
+        String ids = new LinkedHashSet<>(disciplinaIds).stream().map(String::valueOf).collect(Collectors.joining(","));
+        return editarGrade(cursoId,
+            "WITH nova AS (SELECT unnest(CAST(string_to_array(:ids, ',') AS bigint[])) AS disciplina_id), " +
+            "removidas AS (DELETE FROM curso_disciplina WHERE curso_id = :cursoId " +
+            "    AND disciplina_id NOT IN (SELECT disciplina_id FROM nova) RETURNING 1), " +
+            "inseridas AS (INSERT INTO curso_disciplina (curso_id, disciplina_id) " +
+            "    SELECT :cursoId, disciplina_id FROM nova ON CONFLICT DO NOTHING RETURNING 1), " +
+            "alteradas AS (SELECT 1 FROM removidas UNION ALL SELECT 1 FROM inseridas)",
+            Map.of("ids", ids));
+    }
+    
+    /**
+     * Executa uma alteração da grade (CTE "alteradas") e, se algo mudou, incrementa a
+     * versão do curso no mesmo comando, como o Hibernate faz ao alterar a coleção
+     * A chave primária de curso_disciplina (migração V8) é o alvo do ON CONFLICT. Do cache
+     * saem apenas a grade e o curso alterados; uma cópia do curso já carregada na UnitOfWork
+     * ativa não é atualizada.
+     * @return Quantidade de linhas alteradas em curso_disciplina
+     */
+    private int editarGrade(Long cursoId, String alteracao, Map<String, ?> parametros) {
+        return write("editar grade de", em -> {
+            Query query = em.createNativeQuery(alteracao + ", " +
+                "versao AS (UPDATE cursos SET version = version + 1 " +
+                "    WHERE id = :cursoId AND EXISTS (SELECT 1 FROM alteradas)) " +
+                "SELECT count(*) FROM alteradas");
+            query.setParameter("cursoId", cursoId);
+            parametros.forEach(query::setParameter);
+            int alteradas = ((Number) query.getSingleResult()).intValue();
+            if (alteradas > 0) {
+                evictOnCompletion(em, session -> {
+                    CacheImplementor cache = session.getFactory().getCache();
+                    cache.evictCollectionData(DISCIPLINAS, cursoId);
+                    cache.evictEntityData(Curso.class, cursoId);
+                    cache.getTimestampsCache().invalidate(new String[] {"cursos", "curso_disciplina"}, session);
+                });
+            }
+            return alteradas;
+        });
     }
 }
@@ -1,9 +1,9 @@
 package model.dao;
 
+import model.dto.DisciplinaResumo;
 import model.entities.Disciplina;
-import util.JPAUtil;
+import org.hibernate.Session;
 
-import javax.persistence.EntityManager;
 import javax.persistence.TypedQuery;
 import java.util.List;
 
@@ -17,37 +17,66 @@ public class DisciplinaDAO extends GenericDAO<Disciplina> {
     }
     
     /**
-     * Busca disciplina por código
+     * Busca disciplina por código (identificador natural)
+     * A resolução código -> ID e a própria disciplina vêm do cache de segundo nível
+     * quando disponíveis, sem consulta ao banco
      * @param codigo Código da disciplina
      * @return Disciplina encontrada ou null
      */
     public Disciplina findByCodigo(String codigo) {
-        EntityManager em = JPAUtil.getEntityManager();
-        try {
-            TypedQuery<Disciplina> query = em.createQuery(
-                "SELECT d FROM Disciplina d WHERE d.codigo = :codigo", Disciplina.class);
-            query.setParameter("codigo", codigo);
-            List<Disciplina> results = query.getResultList();
-            return results.isEmpty() ? null : results.get(0);
-        } finally {
-            em.close();
-        }
+        return read(em -> {
+            return em.unwrap(Session.class).bySimpleNaturalId(Disciplina.class).load(codigo);
+        });
     }
     
     /**
-     * Busca disciplinas por nome (busca parcial)
+     * Busca disciplinas por nome (busca parcial, sem distinção de acentos e maiúsculas)
+     * Usa o índice trigram sobre o nome normalizado
      * @param nome Nome ou parte do nome
      * @return Lista de disciplinas encontradas
      */
     public List<Disciplina> findByNome(String nome) {
-        EntityManager em = JPAUtil.getEntityManager();
-        try {
+        return read(em -> {
             TypedQuery<Disciplina> query = em.createQuery(
-                "SELECT d FROM Disciplina d WHERE LOWER(d.nome) LIKE LOWER(:nome)", Disciplina.class);
-            query.setParameter("nome", "%" + nome + "%");
+                "SELECT d FROM Disciplina d WHERE FUNCTION('sica_normalizar', d.nome) " +
+                "LIKE CONCAT('%', FUNCTION('sica_normalizar', :nome), '%')", Disciplina.class);
+            query.setParameter("nome", escapeLike(nome));
             return query.getResultList();
-        } finally {
-            em.close();
-        }
+        });
+    }
+    
+    /**
+     * Lista uma página de disciplinas ordenadas por nome (paginação keyset)
+     * @param lastNome Nome do último item da página anterior (null para a primeira página)
+     * @param lastId ID do último item da página anterior
+     * @param limit Quantidade máxima de itens
+     * @return Página de disciplinas
+     */
+    public Pagina<Disciplina> findPageByNomeAfter(String lastNome, Long lastId, int limit) {
+        return findPageAfter("nome", lastNome, lastId, limit);
+    }
+    
+    /**
+     * Busca disciplinas por nome ordenadas por relevância (caixa de busca)
+     * Ignora acentos e maiúsculas e tolera pequenos erros de digitação
+     * @param termo Termo digitado
+     * @param limite Quantidade máxima de resultados
+     * @return Até limite disciplinas, das mais para as menos parecidas
+     */
+    public List<Disciplina> searchByNome(String termo, int limite) {
+        return searchByText("nome", termo, limite);
+    }
+    
+    /**
+     * Lista resumos de todas as disciplinas ordenadas por nome, sem carregar entidades
+     * Mais leve que findAll() para listagens que só mostram id, nome e código
+     * @return Lista de resumos
+     */
+    public List<DisciplinaResumo> findAllResumo() {
+        return read(em -> {
+            return em.createQuery(
+                "SELECT NEW model.dto.DisciplinaResumo(d.id, d.nome, d.codigo) FROM Disciplina d ORDER BY d.nome, d.id",
+                DisciplinaResumo.class).getResultList();
+        });
     }
 }
@@ -0,0 +1,101 @@
+package model.dao;
+
+import model.dto.Estatisticas;
+import model.dto.Estatisticas.MatriculasCurso;
+import model.entities.Matricula.StatusMatricula;
+import util.JPAUtil;
+import util.UnitOfWork;
+
+import javax.persistence.EntityManager;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Totais para o painel, lidos dos contadores mantidos por triggers (migração V4__contadores_painel.sql)
+ * Uma única consulta, de custo independente do tamanho das tabelas, substitui
+ * as chamadas a count() de cada DAO e as contagens por status
+ */
+public class EstatisticasDAO {
+    
+    private static final String TOTAIS_EXATOS =
+        "SELECT 'T' AS tipo, t.tabela AS nome, CAST(NULL AS bigint) AS curso_id, " +
+        "       CAST(NULL AS varchar) AS status, t.total " +
+        "FROM estatisticas_totais t ";
+    
+    // reltuples é atualizado por VACUUM/ANALYZE; -1 indica tabela nunca analisada
+    private static final String TOTAIS_ESTIMADOS =
+        "SELECT 'T' AS tipo, t.tabela AS nome, CAST(NULL AS bigint) AS curso_id, " +
+        "       CAST(NULL AS varchar) AS status, " +
+        "       CASE WHEN c.reltuples < 0 THEN t.total ELSE CAST(c.reltuples AS bigint) END " +
+        "FROM estatisticas_totais t JOIN pg_class c ON c.oid = to_regclass(t.tabela) ";
+    
+    private static final String MATRICULAS =
+        "UNION ALL " +
+        "SELECT 'M', c.nome, e.curso_id, e.status, e.total " +
+        "FROM estatisticas_matriculas e JOIN cursos c ON c.id = e.curso_id " +
+        "WHERE e.total <> 0 " +
+        "ORDER BY 1, 2, 3";
+    
+    /**
+     * Carrega todos os totais com valores exatos
+     * @return Estatísticas do painel
+     */
+    public Estatisticas carregar() {
+        return carregar(false);
+    }
+    
+    /**
+     * Carrega todos os totais em uma única consulta
+     * @param estimarTotais Se true, os totais de alunos, cursos e disciplinas vêm das
+     *                      estimativas do planejador (pg_class.reltuples), sem ler os contadores
+     *                      exatos; as contagens de matrículas são sempre exatas
+     * @return Estatísticas do painel
+     */
+    @SuppressWarnings("unchecked")
+    public Estatisticas carregar(boolean estimarTotais) {
+        String sql = (estimarTotais ? TOTAIS_ESTIMADOS : TOTAIS_EXATOS) + MATRICULAS;
+        List<Object[]> linhas;
+        EntityManager bound = UnitOfWork.current();
+        if (bound != null) {
+            linhas = bound.createNativeQuery(sql).getResultList();
+        } else {
+            EntityManager em = JPAUtil.getEntityManager();
+            try {
+                linhas = em.createNativeQuery(sql).getResultList();
+            } finally {
+                em.close();
+            }
+        }
+        
+        Map<String, Long> totais = new HashMap<>();
+        List<MatriculasCurso> porCurso = new ArrayList<>();
+        Long cursoAtual = null;
+        String nomeAtual = null;
+        Map<StatusMatricula, Long> statusAtual = new EnumMap<>(StatusMatricula.class);
+        for (Object[] linha : linhas) {
+            long total = ((Number) linha[4]).longValue();
+            if ("T".equals(linha[0])) {
+                totais.put((String) linha[1], total);
+                continue;
+            }
+            Long cursoId = ((Number) linha[2]).longValue();
+            if (!cursoId.equals(cursoAtual)) {
+                if (cursoAtual != null) {
+                    porCurso.add(new MatriculasCurso(cursoAtual, nomeAtual, statusAtual));
+                }
+                cursoAtual = cursoId;
+                nomeAtual = (String) linha[1];
+                statusAtual = new EnumMap<>(StatusMatricula.class);
+            }
+            statusAtual.put(StatusMatricula.valueOf((String) linha[3]), total);
+        }
+        if (cursoAtual != null) {
+            porCurso.add(new MatriculasCurso(cursoAtual, nomeAtual, statusAtual));
+        }
+        return new Estatisticas(totais.getOrDefault("alunos", 0L), totais.getOrDefault("cursos", 0L),
+                totais.getOrDefault("disciplinas", 0L), estimarTotais, porCurso);
+    }
+}
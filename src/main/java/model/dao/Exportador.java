@@ -0,0 +1,163 @@
+package model.dao;
+
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyManager;
+import util.JPAUtil;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Exporta alunos e matrículas (com os dados do curso) em CSV ou JSON Lines usando
+ * COPY TO STDOUT do PostgreSQL
+ *
+ * As linhas são geradas pelo banco e gravadas em streaming no arquivo (memória constante),
+ * sem passar por entidades. Arquivos terminados em ".gz" são compactados com gzip.
+ * O arquivo é escrito em um temporário ao lado do destino e só é renomeado no fim, então
+ * uma exportação interrompida não deixa um arquivo incompleto no lugar do anterior.
+ * Cada exportação é um único comando e vê um retrato consistente do banco; as linhas não
+ * têm ordem definida.
+ */
+public class Exportador {
+
+    public enum Formato {
+        /** CSV com cabeçalho; campos nulos ficam vazios */
+        CSV,
+        /** Um objeto JSON por linha, com as mesmas colunas do CSV */
+        JSONL
+    }
+
+    private static final int BUFFER = 1 << 16;
+
+    private static final String ALUNOS =
+        "SELECT id, matricula, nome, email, data_nascimento, telefone FROM alunos";
+
+    private static final String MATRICULAS =
+        "SELECT m.id, m.data_matricula, m.status, " +
+        "  a.id AS aluno_id, a.matricula AS aluno_matricula, a.nome AS aluno_nome, " +
+        "  c.id AS curso_id, c.codigo AS curso_codigo, c.nome AS curso_nome " +
+        "FROM matriculas m " +
+        "JOIN alunos a ON a.id = m.aluno_id " +
+        "JOIN cursos c ON c.id = m.curso_id";
+
+    /**
+     * Exporta todos os alunos
+     * @param arquivo Arquivo de destino (".gz" no final para compactar)
+     * @param formato CSV ou JSONL
+     * @return Resultado com a quantidade de linhas e o tamanho do arquivo
+     */
+    public Resultado exportarAlunos(Path arquivo, Formato formato) {
+        return exportar("alunos", ALUNOS, arquivo, formato);
+    }
+
+    /**
+     * Exporta todas as matrículas, com matrícula e nome do aluno e código e nome do curso
+     * @param arquivo Arquivo de destino (".gz" no final para compactar)
+     * @param formato CSV ou JSONL
+     * @return Resultado com a quantidade de linhas e o tamanho do arquivo
+     */
+    public Resultado exportarMatriculas(Path arquivo, Formato formato) {
+        return exportar("matriculas", MATRICULAS, arquivo, formato);
+    }
+
+    private Resultado exportar(String descricao, String consulta, Path arquivo, Formato formato) {
+        long inicio = System.nanoTime();
+        Path parcial = arquivo.resolveSibling(arquivo.getFileName() + ".parcial");
+        boolean gzip = arquivo.getFileName().toString().endsWith(".gz");
+        try (Connection conn = JPAUtil.getDataSource().getConnection()) {
+            CopyManager copyManager = conn.unwrap(PGConnection.class).getCopyAPI();
+            long linhas;
+            try (FileChannel canal = FileChannel.open(parcial, StandardOpenOption.CREATE,
+                    StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+                 OutputStream saida = abrir(canal, gzip)) {
+                linhas = copyManager.copyOut(copy(consulta, formato), saida);
+            }
+            Files.move(parcial, arquivo, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            long duracaoMs = (System.nanoTime() - inicio) / 1_000_000;
+            return new Resultado(linhas, Files.size(arquivo), duracaoMs);
+        } catch (SQLException | IOException e) {
+            try {
+                Files.deleteIfExists(parcial);
+            } catch (IOException ignorada) {
+                e.addSuppressed(ignorada);
+            }
+            throw new RuntimeException("Erro ao exportar " + descricao + ": " + e.getMessage(), e);
+        }
+    }
+
+    // Cada linha chega do driver em uma mensagem própria: o buffer agrupa as escritas
+    // (no canal ou no compactador)
+    private static OutputStream abrir(FileChannel canal, boolean gzip) throws IOException {
+        OutputStream saida = Channels.newOutputStream(canal);
+        if (gzip) {
+            saida = new GZIPOutputStream(saida, BUFFER);
+        }
+        return new BufferedOutputStream(saida, BUFFER);
+    }
+
+    // No formato text o COPY escaparia as barras invertidas do JSON; em csv, com aspas e
+    // delimitador que o JSON nunca contém sem escape, a coluna única sai sem alteração
+    private static String copy(String consulta, Formato formato) {
+        switch (formato) {
+            case CSV:
+                return "COPY (" + consulta + ") TO STDOUT WITH (FORMAT csv, HEADER true)";
+            case JSONL:
+                return "COPY (SELECT row_to_json(t) FROM (" + consulta + ") t) " +
+                       "TO STDOUT WITH (FORMAT csv, QUOTE E'\\x01', DELIMITER E'\\x02')";
+            default:
+                throw new IllegalArgumentException("Formato nao suportado: " + formato);
+        }
+    }
+
+    /**
+     * Resultado de uma exportação
+     */
+    public static class Resultado {
+        private final long linhas;
+        private final long bytes;
+        private final long duracaoMs;
+
+        Resultado(long linhas, long bytes, long duracaoMs) {
+            this.linhas = linhas;
+            this.bytes = bytes;
+            this.duracaoMs = duracaoMs;
+        }
+
+        /**
+         * @return Registros exportados (sem contar o cabeçalho do CSV)
+         */
+        public long getLinhas() {
+            return linhas;
+        }
+
+        /**
+         * @return Tamanho do arquivo gravado (compactado, se for ".gz")
+         */
+        public long getBytes() {
+            return bytes;
+        }
+
+        public long getDuracaoMs() {
+            return duracaoMs;
+        }
+
+        @Override
+        public String toString() {
+            return "Resultado{" +
+                    "linhas=" + linhas +
+                    ", bytes=" + bytes +
+                    ", duracaoMs=" + duracaoMs +
+                    '}';
+        }
+    }
+}
@@ -1,10 +1,37 @@
 package model.dao;
 
+import org.hibernate.cache.spi.CacheImplementor;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.engine.spi.SessionImplementor;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.jpa.QueryHints;
+import org.hibernate.metamodel.spi.MetamodelImplementor;
+import org.hibernate.persister.entity.AbstractEntityPersister;
+import org.hibernate.query.NativeQuery;
+import org.hibernate.type.Type;
+import util.Config;
 import util.JPAUtil;
+import util.UnitOfWork;
 
 import javax.persistence.EntityManager;
+import javax.persistence.OptimisticLockException;
+import javax.persistence.Query;
+import javax.persistence.Table;
 import javax.persistence.TypedQuery;
+import java.io.Serializable;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Stream;
 
 /**
  * DAO genérico com operações CRUD básicas
@@ -13,31 +40,215 @@ import java.util.List;
  */
 public abstract class GenericDAO<T> {
     
+    /**
+     * Quantidade padrão de entidades por transação em saveAll
+     */
+    public static final int DEFAULT_CHUNK_SIZE = Config.getIntProperty("DB_SAVE_ALL_CHUNK_SIZE", 1000);
+    
+    /**
+     * Quantidade de linhas trazidas por ida ao banco nas leituras em streaming
+     */
+    public static final int STREAM_FETCH_SIZE = positiveProperty("DB_FETCH_SIZE", 500);
+    
+    /**
+     * Quantidade padrão de linhas por transação nas atualizações em massa
+     */
+    public static final int BULK_CHUNK_SIZE = Config.getIntProperty("DB_BULK_CHUNK_SIZE", 1000);
+    
+    private static final String FETCH_GRAPH = "javax.persistence.fetchgraph";
+    
+    private static int positiveProperty(String key, int defaultValue) {
+        int value = Config.getIntProperty(key, defaultValue);
+        if (value <= 0) {
+            throw new IllegalStateException(key + " deve ser positivo: " + value);
+        }
+        return value;
+    }
+    
     private final Class<T> entityClass;
     
     public GenericDAO(Class<T> entityClass) {
         this.entityClass = entityClass;
     }
     
+    /**
+     * Nome do grafo de entidade usado por findById, findAll, paginação e streaming
+     * Subclasses cujas entidades têm associações LAZY que as telas sempre usam
+     * devem sobrescrever para buscá-las na mesma consulta (evitando N+1)
+     * @return Nome de um @NamedEntityGraph ou null para usar o mapeamento padrão
+     */
+    protected String defaultEntityGraph() {
+        return null;
+    }
+    
+    /**
+     * Aplica o grafo padrão (se houver) como fetch graph da consulta
+     */
+    protected void applyFetchPlan(EntityManager em, TypedQuery<T> query) {
+        String graph = defaultEntityGraph();
+        if (graph != null) {
+            query.setHint(FETCH_GRAPH, em.getEntityGraph(graph));
+        }
+    }
+    
+    /**
+     * Executa uma leitura com o EntityManager da unidade de trabalho ativa (UnitOfWork)
+     * ou, se não houver, com um EntityManager próprio, fechado ao final
+     * @param work Leitura a executar
+     * @return Resultado da leitura
+     */
+    protected <R> R read(Function<EntityManager, R> work) {
+        EntityManager bound = UnitOfWork.current();
+        if (bound != null) {
+            return work.apply(bound);
+        }
+        EntityManager em = JPAUtil.getEntityManager();
+        try {
+            return work.apply(em);
+        } finally {
+            em.close();
+        }
+    }
+    
+    /**
+     * Executa uma escrita na unidade de trabalho ativa (sem commit, que fica com a unidade)
+     * ou, se não houver, em uma transação própria confirmada ao final
+     * @param acao Verbo usado na mensagem de erro (ex.: "salvar")
+     * @param work Escrita a executar
+     * @return Resultado da escrita
+     */
+    protected <R> R write(String acao, Function<EntityManager, R> work) {
+        try {
+            return UnitOfWork.inTransaction(work);
+        } catch (RuntimeException e) {
+            throw new RuntimeException("Erro ao " + acao + " " + entityClass.getSimpleName(), e);
+        }
+    }
+    
+    /**
+     * Executa um comando em lotes, cada um em sua própria transação, até que um lote
+     * afete menos de chunkSize linhas. Cada lote deve tirar as linhas que alterou do
+     * próprio filtro (ex.: WHERE status = :de), senão o laço não termina.
+     * Os bloqueios duram apenas um lote; se ocorrer um erro, os lotes anteriores já
+     * estão confirmados. Dentro de uma UnitOfWork, todos rodam na transação da unidade.
+     * @param acao Descrição da operação para a mensagem de erro
+     * @param chunkSize Máximo de linhas por lote (o comando deve respeitar o limite)
+     * @param chunk Executa um lote e retorna a quantidade de linhas afetadas
+     * @return Total de linhas afetadas
+     */
+    protected int executeInChunks(String acao, int chunkSize, Function<EntityManager, Integer> chunk) {
+        if (chunkSize <= 0) {
+            throw new IllegalArgumentException("chunkSize deve ser positivo");
+        }
+        int total = 0;
+        try {
+            int count;
+            do {
+                count = UnitOfWork.inTransaction(chunk);
+                total += count;
+            } while (count >= chunkSize);
+            return total;
+        } catch (RuntimeException e) {
+            throw new RuntimeException("Erro ao " + acao + " " + entityClass.getSimpleName() +
+                    (UnitOfWork.isActive() ? "" : " (" + total + " já confirmados)"), e);
+        }
+    }
+    
     /**
      * Salva uma nova entidade no banco
      * @param entity Entidade a ser salva
      * @return Entidade salva com ID gerado
      */
     public T save(T entity) {
+        return write("salvar", em -> {
+            em.persist(entity);
+            return entity;
+        });
+    }
+    
+    /**
+     * Salva várias entidades usando lotes JDBC
+     * @param entities Entidades a serem salvas
+     * @return Quantidade de entidades salvas
+     * @see #saveAll(Stream, int)
+     */
+    public int saveAll(Collection<T> entities) {
+        return saveAll(entities.stream(), DEFAULT_CHUNK_SIZE);
+    }
+    
+    /**
+     * Salva várias entidades usando lotes JDBC
+     * @param entities Entidades a serem salvas
+     * @return Quantidade de entidades salvas
+     * @see #saveAll(Stream, int)
+     */
+    public int saveAll(Stream<T> entities) {
+        return saveAll(entities, DEFAULT_CHUNK_SIZE);
+    }
+    
+    /**
+     * Salva várias entidades em um único EntityManager, fazendo commit a cada
+     * chunkSize entidades. O contexto de persistência é esvaziado a cada lote
+     * JDBC (DB_BATCH_SIZE), então o consumo de memória não cresce com o volume.
+     * Se ocorrer um erro, apenas o chunk corrente é desfeito; os anteriores
+     * já estão confirmados.
+     * Dentro de uma UnitOfWork, tudo é salvo na transação da unidade (sem commits
+     * intermediários) e o contexto não é esvaziado, para não desanexar as entidades
+     * que o chamador já carregou; para volumes grandes, chame fora de uma unidade.
+     * @param entities Entidades a serem salvas
+     * @param chunkSize Quantidade de entidades por transação
+     * @return Quantidade de entidades salvas
+     */
+    public int saveAll(Stream<T> entities, int chunkSize) {
+        if (chunkSize <= 0) {
+            throw new IllegalArgumentException("chunkSize deve ser positivo");
+        }
+        int batchSize = JPAUtil.getBatchSize();
+        if (UnitOfWork.isActive()) {
+            try (entities) {
+                return write("salvar lote de", em -> {
+                    int count = 0;
+                    Iterator<T> iterator = entities.iterator();
+                    while (iterator.hasNext()) {
+                        em.persist(iterator.next());
+                        if (++count % batchSize == 0) {
+                            em.flush();
+                        }
+                    }
+                    return count;
+                });
+            }
+        }
         EntityManager em = JPAUtil.getEntityManager();
+        int count = 0;
+        int committed = 0;
         try {
             em.getTransaction().begin();
-            em.persist(entity);
+            Iterator<T> iterator = entities.iterator();
+            while (iterator.hasNext()) {
+                em.persist(iterator.next());
+                count++;
+                if (count % chunkSize == 0) {
+                    em.getTransaction().commit();
+                    committed = count;
+                    em.clear();
+                    em.getTransaction().begin();
+                } else if (count % batchSize == 0) {
+                    em.flush();
+                    em.clear();
+                }
+            }
             em.getTransaction().commit();
-            return entity;
+            return count;
         } catch (Exception e) {
             if (em.getTransaction().isActive()) {
                 em.getTransaction().rollback();
             }
-            throw new RuntimeException("Erro ao salvar " + entityClass.getSimpleName(), e);
+            throw new RuntimeException("Erro ao salvar lote de " + entityClass.getSimpleName() +
+                    " (" + committed + " já confirmados)", e);
         } finally {
             em.close();
+            entities.close();
         }
     }
     
@@ -47,43 +258,237 @@ public abstract class GenericDAO<T> {
      * @return Entidade atualizada
      */
     public T update(T entity) {
-        EntityManager em = JPAUtil.getEntityManager();
-        try {
-            em.getTransaction().begin();
-            T updated = em.merge(entity);
-            em.getTransaction().commit();
-            return updated;
-        } catch (Exception e) {
-            if (em.getTransaction().isActive()) {
-                em.getTransaction().rollback();
+        return write("atualizar", em -> em.merge(entity));
+    }
+    
+    /**
+     * Altera apenas os atributos informados, sem carregar a entidade:
+     * um único UPDATE com as colunas alteradas e a versão incrementada
+     * ex.: alunoDAO.patch(id, Map.of("telefone", "11999999999"))
+     * @param id ID da entidade
+     * @param changes Atributos simples (nome no modelo Java) e novos valores
+     * @return false se não existe entidade com o ID
+     * @see #patch(Long, long, Map)
+     */
+    public boolean patch(Long id, Map<String, ?> changes) {
+        return write("atualizar", em -> executePatch(em, id, null, changes)) != null;
+    }
+    
+    /**
+     * Altera apenas os atributos informados se a entidade ainda estiver na versão
+     * informada (a lida pelo cliente), sem consultá-la antes
+     * Se outro cliente alterou ou removeu a entidade nesse meio tempo, nada é gravado e a
+     * exceção tem como causa uma OptimisticLockException, como em update().
+     * Só a entrada da entidade é removida do cache de segundo nível; uma cópia já
+     * carregada na UnitOfWork ativa não é atualizada.
+     * @param id ID da entidade
+     * @param version Versão esperada
+     * @param changes Atributos simples (nome no modelo Java) e novos valores
+     * @return Nova versão da entidade
+     */
+    public long patch(Long id, long version, Map<String, ?> changes) {
+        return write("atualizar", em -> {
+            Long novaVersao = executePatch(em, id, version, changes);
+            if (novaVersao == null) {
+                throw new OptimisticLockException(entityClass.getSimpleName() + " #" + id +
+                        " foi alterado ou removido por outra transação (versão esperada " + version + ")");
             }
-            throw new RuntimeException("Erro ao atualizar " + entityClass.getSimpleName(), e);
-        } finally {
-            em.close();
+            return novaVersao;
+        });
+    }
+    
+    /**
+     * Executa o UPDATE do patch pela conexão da sessão, com os tipos do Hibernate
+     * Um UPDATE em JPQL invalidaria a região de cache inteira da entidade; aqui só a
+     * entrada do ID (e os IDs naturais, se alterados) sai do cache, antes e depois do commit
+     * @return Nova versão (ou o ID, se a entidade não tiver versão), null se nenhuma linha foi alterada
+     */
+    private Long executePatch(EntityManager em, Long id, Long version, Map<String, ?> changes) {
+        if (changes.isEmpty()) {
+            throw new IllegalArgumentException("Nenhum atributo para alterar");
+        }
+        SessionImplementor session = em.unwrap(SessionImplementor.class);
+        AbstractEntityPersister persister = (AbstractEntityPersister) session.getFactory()
+                .getMetamodel().entityPersister(entityClass);
+        
+        StringBuilder sql = new StringBuilder("UPDATE ").append(persister.getTableName()).append(" SET ");
+        List<Type> types = new ArrayList<>();
+        List<Object> values = new ArrayList<>();
+        boolean naturalId = false;
+        for (Map.Entry<String, ?> change : changes.entrySet()) {
+            int index = patchableProperty(persister, change.getKey(), change.getValue());
+            naturalId |= persister.hasNaturalIdentifier() &&
+                    Arrays.stream(persister.getNaturalIdentifierProperties()).anyMatch(p -> p == index);
+            sql.append(persister.getPropertyColumnNames(index)[0]).append(" = ?, ");
+            types.add(persister.getPropertyTypes()[index]);
+            values.add(change.getValue());
+        }
+        String idColumn = persister.getIdentifierColumnNames()[0];
+        String returning = idColumn;
+        if (persister.isVersioned()) {
+            returning = persister.getVersionColumnName();
+            sql.append(returning).append(" = ").append(returning).append(" + 1, ");
+        }
+        sql.setLength(sql.length() - 2);
+        sql.append(" WHERE ").append(idColumn).append(" = ?");
+        types.add(persister.getIdentifierType());
+        values.add(id);
+        if (version != null) {
+            sql.append(" AND ").append(persister.getVersionColumnName()).append(" = ?");
+            types.add(persister.getVersionType());
+            values.add(version);
+        }
+        sql.append(" RETURNING ").append(returning);
+        
+        // Alterações pendentes da unidade de trabalho são gravadas antes
+        em.flush();
+        Long result = session.doReturningWork(conn -> {
+            try (PreparedStatement ps = conn.prepareStatement(sql.toString())) {
+                for (int i = 0; i < values.size(); i++) {
+                    types.get(i).nullSafeSet(ps, values.get(i), i + 1, session);
+                }
+                try (ResultSet rs = ps.executeQuery()) {
+                    return rs.next() ? rs.getLong(1) : null;
+                }
+            }
+        });
+        
+        boolean evictNaturalIds = naturalId;
+        evictOnCompletion(em, s -> evictPatched(s, persister, id, evictNaturalIds));
+        return result;
+    }
+    
+    /**
+     * Valida um atributo do patch: precisa existir, ser simples (não associação nem coleção),
+     * atualizável, e o valor precisa ser do tipo do atributo
+     * @return Índice do atributo no persister
+     */
+    private int patchableProperty(AbstractEntityPersister persister, String name, Object value) {
+        Integer index = persister.getEntityMetamodel().getPropertyIndexOrNull(name);
+        String entity = entityClass.getSimpleName();
+        if (index == null) {
+            throw new IllegalArgumentException("Atributo inexistente ou não alterável em " + entity + ": " + name);
+        }
+        Type type = persister.getPropertyTypes()[index];
+        if (index == persister.getVersionProperty() || type.isAssociationType() || type.isComponentType()
+                || !persister.getPropertyUpdateability()[index]) {
+            throw new IllegalArgumentException("Atributo não pode ser alterado por patch em " + entity + ": " + name);
+        }
+        if (value == null && !persister.getPropertyNullability()[index]) {
+            throw new IllegalArgumentException("Atributo obrigatório em " + entity + ": " + name);
         }
+        if (value != null && !type.getReturnedClass().isInstance(value)) {
+            throw new IllegalArgumentException("Valor de " + entity + "." + name + " deve ser " +
+                    type.getReturnedClass().getSimpleName() + ", não " + value.getClass().getSimpleName());
+        }
+        return index;
     }
     
     /**
-     * Remove uma entidade pelo ID
+     * Remove dados do cache de segundo nível agora e de novo ao fim da transação, depois de um
+     * comando executado por fora do Hibernate (entre o comando e o commit, outra sessão ainda
+     * pode colocar no cache o valor antigo)
+     * @param em EntityManager da transação
+     * @param eviction Remoção, recebe a sessão
+     */
+    protected static void evictOnCompletion(EntityManager em, Consumer<SharedSessionContractImplementor> eviction) {
+        SessionImplementor session = em.unwrap(SessionImplementor.class);
+        eviction.accept(session);
+        session.getActionQueue().registerProcess((success, s) -> eviction.accept(s));
+    }
+    
+    private static void evictPatched(SharedSessionContractImplementor session, AbstractEntityPersister persister,
+                                     Long id, boolean naturalIds) {
+        CacheImplementor cache = session.getFactory().getCache();
+        cache.evictEntityData(persister.getEntityName(), id);
+        if (naturalIds) {
+            cache.evictNaturalIdData(persister.getEntityName());
+        }
+        // Consultas em cache que filtram pelos atributos alterados (ex.: findByEmail)
+        cache.getTimestampsCache().invalidate((String[]) persister.getQuerySpaces(), session);
+    }
+    
+    /**
+     * Remove uma entidade pelo ID, sem carregá-la
+     * As dependentes (ex.: matrículas de um aluno ou curso) são removidas pelo banco
      * @param id ID da entidade
+     * @see #deleteAllByIds(Collection)
      */
     public void delete(Long id) {
-        EntityManager em = JPAUtil.getEntityManager();
-        try {
-            em.getTransaction().begin();
-            T entity = em.find(entityClass, id);
-            if (entity != null) {
-                em.remove(entity);
+        deleteAllByIds(List.of(id));
+    }
+    
+    /**
+     * Remove várias entidades pelo ID com DELETE ... WHERE id IN (...), em uma transação
+     * Nada é carregado para a memória: as chaves estrangeiras ON DELETE CASCADE (migração V6)
+     * removem matrículas e linhas da grade no mesmo comando. O cache de segundo nível da
+     * entidade e das coleções de que ela participa é invalidado; entidades já carregadas
+     * na UnitOfWork ativa não são desanexadas.
+     * @param ids IDs das entidades
+     * @return Quantidade de entidades removidas
+     */
+    public int deleteAllByIds(Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        if (BULK_CHUNK_SIZE <= 0) {
+            throw new IllegalStateException("DB_BULK_CHUNK_SIZE deve ser positivo: " + BULK_CHUNK_SIZE);
+        }
+        List<Long> lista = new ArrayList<>(ids);
+        return write("deletar lote de", em -> {
+            int count = 0;
+            for (int i = 0; i < lista.size(); i += BULK_CHUNK_SIZE) {
+                count += bulkDelete(em, "e.id IN (:ids)",
+                        Map.of("ids", lista.subList(i, Math.min(i + BULK_CHUNK_SIZE, lista.size()))));
             }
-            em.getTransaction().commit();
-        } catch (Exception e) {
-            if (em.getTransaction().isActive()) {
-                em.getTransaction().rollback();
+            return count;
+        });
+    }
+    
+    /**
+     * Remove, com um único DELETE, as entidades que atendem a uma condição SQL sobre a
+     * tabela da entidade (alias e), ex.: deleteWhere("e.status = :status", Map.of("status", "CANCELADA"))
+     * A condição deve ser fixa no código; valores vêm sempre por parâmetro.
+     * As dependentes são removidas pelo banco, como em deleteAllByIds.
+     * @param condition Condição do WHERE
+     * @param parameters Parâmetros nomeados da condição
+     * @return Quantidade de entidades removidas
+     */
+    public int deleteWhere(String condition, Map<String, ?> parameters) {
+        return write("deletar", em -> bulkDelete(em, condition, parameters));
+    }
+    
+    private int bulkDelete(EntityManager em, String condition, Map<String, ?> parameters) {
+        String table = entityClass.getAnnotation(Table.class).name();
+        NativeQuery<?> query = em.createNativeQuery("DELETE FROM " + table + " e WHERE " + condition)
+                .unwrap(NativeQuery.class);
+        cascadeSpaces(em).forEach(query::addSynchronizedQuerySpace);
+        parameters.forEach(query::setParameter);
+        return query.executeUpdate();
+    }
+    
+    /**
+     * Tabelas afetadas por um DELETE na entidade: a própria e as das coleções de que ela
+     * participa (ex.: Curso -> cursos, matriculas, curso_disciplina)
+     * O Hibernate invalida o cache dessas tabelas ao fim do comando; sem elas invalidaria
+     * todo o cache de segundo nível.
+     */
+    private Set<String> cascadeSpaces(EntityManager em) {
+        MetamodelImplementor metamodel = em.getEntityManagerFactory()
+                .unwrap(SessionFactoryImplementor.class).getMetamodel();
+        Set<String> spaces = new HashSet<>();
+        for (Serializable space : metamodel.entityPersister(entityClass).getQuerySpaces()) {
+            spaces.add((String) space);
+        }
+        Set<String> roles = metamodel.getCollectionRolesByEntityParticipant(entityClass.getName());
+        if (roles != null) {
+            for (String role : roles) {
+                for (Serializable space : metamodel.collectionPersister(role).getCollectionSpaces()) {
+                    spaces.add((String) space);
+                }
             }
-            throw new RuntimeException("Erro ao deletar " + entityClass.getSimpleName(), e);
-        } finally {
-            em.close();
         }
+        return spaces;
     }
     
     /**
@@ -92,12 +497,13 @@ public abstract class GenericDAO<T> {
      * @return Entidade encontrada ou null
      */
     public T findById(Long id) {
-        EntityManager em = JPAUtil.getEntityManager();
-        try {
-            return em.find(entityClass, id);
-        } finally {
-            em.close();
-        }
+        return read(em -> {
+            String graph = defaultEntityGraph();
+            if (graph == null) {
+                return em.find(entityClass, id);
+            }
+            return em.find(entityClass, id, Map.of(FETCH_GRAPH, em.getEntityGraph(graph)));
+        });
     }
     
     /**
@@ -105,27 +511,207 @@ public abstract class GenericDAO<T> {
      * @return Lista de entidades
      */
     public List<T> findAll() {
-        EntityManager em = JPAUtil.getEntityManager();
-        try {
+        return read(em -> {
             String jpql = "SELECT e FROM " + entityClass.getSimpleName() + " e";
             TypedQuery<T> query = em.createQuery(jpql, entityClass);
+            applyFetchPlan(em, query);
             return query.getResultList();
+        });
+    }
+    
+    /**
+     * Percorre todas as entidades em streaming, com memória constante
+     * Fora de uma UnitOfWork, as entidades são somente leitura e o contexto é esvaziado a
+     * cada STREAM_FETCH_SIZE linhas: até lá elas continuam gerenciadas, então a ação pode
+     * receber entidades gerenciadas e, depois de um esvaziamento, ver as anteriores
+     * desanexadas. Alterações não são gravadas (a transação é desfeita ao final).
+     * Dentro de uma UnitOfWork, valem as regras de stream(Function)
+     * @param action Ação executada para cada entidade
+     */
+    public void streamAll(Consumer<T> action) {
+        try (Stream<T> stream = streamAll()) {
+            stream.forEach(action);
+        }
+    }
+    
+    /**
+     * Retorna todas as entidades em um Stream lido por cursor no servidor
+     * O Stream mantém um EntityManager e uma conexão abertos até ser fechado,
+     * portanto use sempre try-with-resources
+     * @return Stream de entidades
+     */
+    public Stream<T> streamAll() {
+        return stream(em -> em.createQuery("SELECT e FROM " + entityClass.getSimpleName() + " e", entityClass));
+    }
+    
+    /**
+     * Executa a consulta em streaming: abre uma transação somente leitura (necessária
+     * para o PostgreSQL usar cursor), busca STREAM_FETCH_SIZE linhas por vez e
+     * limpa o contexto de persistência a cada lote para não acumular entidades
+     * Dentro de uma UnitOfWork, usa o EntityManager e a transação da unidade e não
+     * esvazia o contexto (as entidades lidas ficam anexadas até o fim da unidade);
+     * o Stream deve ser fechado antes de a unidade terminar
+     * @param queryFactory Cria a consulta no EntityManager informado
+     * @return Stream que libera EntityManager e conexão ao ser fechado
+     */
+    protected Stream<T> stream(Function<EntityManager, TypedQuery<T>> queryFactory) {
+        EntityManager bound = UnitOfWork.current();
+        if (bound != null) {
+            TypedQuery<T> query = queryFactory.apply(bound);
+            applyFetchPlan(bound, query);
+            query.setHint(QueryHints.HINT_FETCH_SIZE, STREAM_FETCH_SIZE);
+            return query.getResultStream();
+        }
+        EntityManager em = JPAUtil.getEntityManager();
+        try {
+            em.getTransaction().begin();
+            TypedQuery<T> query = queryFactory.apply(em);
+            applyFetchPlan(em, query);
+            query.setHint(QueryHints.HINT_FETCH_SIZE, STREAM_FETCH_SIZE);
+            query.setHint(QueryHints.HINT_READONLY, true);
+            int[] count = {0};
+            return query.getResultStream()
+                    .map(entity -> {
+                        if (++count[0] % STREAM_FETCH_SIZE == 0) {
+                            em.clear();
+                        }
+                        return entity;
+                    })
+                    .onClose(() -> closeReadOnly(em));
+        } catch (Exception e) {
+            closeReadOnly(em);
+            throw new RuntimeException("Erro ao ler " + entityClass.getSimpleName() + " em streaming", e);
+        }
+    }
+    
+    /**
+     * Encerra a transação somente leitura de um streaming e fecha o EntityManager
+     */
+    private static void closeReadOnly(EntityManager em) {
+        try {
+            if (em.getTransaction().isActive()) {
+                em.getTransaction().rollback();
+            }
         } finally {
             em.close();
         }
     }
     
+    /**
+     * Lista uma página de entidades ordenadas por ID, a partir do cursor informado
+     * Usa predicado keyset (id > cursor) em vez de OFFSET, então o custo é o mesmo
+     * para qualquer página
+     * @param lastId ID do último item da página anterior (null para a primeira página)
+     * @param limit Quantidade máxima de itens
+     * @return Página de entidades
+     */
+    public Pagina<T> findPageAfter(Long lastId, int limit) {
+        return read(em -> {
+            String entityName = entityClass.getSimpleName();
+            TypedQuery<T> query;
+            if (lastId == null) {
+                query = em.createQuery("SELECT e FROM " + entityName + " e ORDER BY e.id", entityClass);
+            } else {
+                query = em.createQuery("SELECT e FROM " + entityName + " e WHERE e.id > :lastId " +
+                        "ORDER BY e.id", entityClass);
+                query.setParameter("lastId", lastId);
+            }
+            return toPagina(em, query, limit);
+        });
+    }
+    
+    /**
+     * Lista uma página de entidades ordenadas por um atributo texto e, em caso de empate, pelo ID
+     * Deve existir um índice em (atributo, id) para que a busca seja feita pelo índice
+     * @param attribute Nome do atributo de ordenação (ex.: "nome")
+     * @param lastValue Valor do atributo no último item da página anterior (null para a primeira página)
+     * @param lastId ID do último item da página anterior
+     * @param limit Quantidade máxima de itens
+     * @return Página de entidades
+     */
+    protected Pagina<T> findPageAfter(String attribute, String lastValue, Long lastId, int limit) {
+        return read(em -> {
+            String entityName = entityClass.getSimpleName();
+            String orderBy = " ORDER BY e." + attribute + ", e.id";
+            TypedQuery<T> query;
+            if (lastValue == null || lastId == null) {
+                query = em.createQuery("SELECT e FROM " + entityName + " e" + orderBy, entityClass);
+            } else {
+                // O primeiro termo (>=) permite ao PostgreSQL percorrer o índice a partir do cursor
+                query = em.createQuery("SELECT e FROM " + entityName + " e " +
+                        "WHERE e." + attribute + " >= :lastValue " +
+                        "AND (e." + attribute + " > :lastValue OR e.id > :lastId)" + orderBy, entityClass);
+                query.setParameter("lastValue", lastValue);
+                query.setParameter("lastId", lastId);
+            }
+            return toPagina(em, query, limit);
+        });
+    }
+    
+    /**
+     * Executa a consulta buscando um item a mais que o limite para saber se há próxima página
+     */
+    private Pagina<T> toPagina(EntityManager em, TypedQuery<T> query, int limit) {
+        if (limit <= 0) {
+            throw new IllegalArgumentException("limit deve ser positivo");
+        }
+        applyFetchPlan(em, query);
+        List<T> results = query.setMaxResults(limit + 1).getResultList();
+        boolean hasNext = results.size() > limit;
+        List<T> itens = hasNext ? results.subList(0, limit) : results;
+        Long ultimoId = itens.isEmpty() ? null :
+                (Long) em.getEntityManagerFactory().getPersistenceUnitUtil().getIdentifier(itens.get(itens.size() - 1));
+        return new Pagina<>(new ArrayList<>(itens), hasNext, ultimoId);
+    }
+    
+    /**
+     * Busca por texto sem distinção de acentos e maiúsculas, ordenada por relevância
+     * Usa o índice trigram (pg_trgm) sobre sica_normalizar(coluna), criado pela migração V2__busca_por_nome.sql.
+     * Encontra tanto trechos exatos (LIKE) quanto palavras parecidas (erros de digitação)
+     * @param column Coluna de texto indexada (ex.: "nome")
+     * @param term Termo digitado
+     * @param limit Quantidade máxima de resultados
+     * @return Até limit entidades, das mais para as menos parecidas
+     */
+    @SuppressWarnings("unchecked")
+    protected List<T> searchByText(String column, String term, int limit) {
+        if (term == null || term.isBlank()) {
+            return new ArrayList<>();
+        }
+        return read(em -> {
+            String table = entityClass.getAnnotation(Table.class).name();
+            String normalized = "sica_normalizar(e." + column + ")";
+            Query query = em.createNativeQuery(
+                "SELECT e.* FROM " + table + " e " +
+                "WHERE " + normalized + " LIKE '%' || sica_normalizar(:pattern) || '%' " +
+                "   OR sica_normalizar(:term) <% " + normalized + " " +
+                "ORDER BY word_similarity(sica_normalizar(:term), " + normalized + ") DESC, " +
+                "         e." + column + ", e.id " +
+                "LIMIT :limit", entityClass);
+            query.setParameter("pattern", escapeLike(term.trim()));
+            query.setParameter("term", term.trim());
+            query.setParameter("limit", limit);
+            return query.getResultList();
+        });
+    }
+    
+    /**
+     * Escapa os curingas do LIKE (%, _ e \) para que o termo seja buscado literalmente
+     * @param term Termo digitado
+     * @return Termo escapado
+     */
+    protected static String escapeLike(String term) {
+        return term.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+    
     /**
      * Conta o total de registros
      * @return Número total de registros
      */
     public Long count() {
-        EntityManager em = JPAUtil.getEntityManager();
-        try {
+        return read(em -> {
             String jpql = "SELECT COUNT(e) FROM " + entityClass.getSimpleName() + " e";
             return em.createQuery(jpql, Long.class).getSingleResult();
-        } finally {
-            em.close();
-        }
+        });
     }
 }
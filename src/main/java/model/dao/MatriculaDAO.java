@@ -1,11 +1,13 @@
 package model.dao;
 
+import model.dto.MatriculaLinha;
 import model.entities.Matricula;
-import util.JPAUtil;
+import org.hibernate.query.NativeQuery;
 
-import javax.persistence.EntityManager;
 import javax.persistence.TypedQuery;
 import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 /**
  * DAO para operacoes com a entidade Matricula
@@ -17,56 +19,214 @@ public class MatriculaDAO extends GenericDAO<Matricula> {
     }
     
     /**
-     * Busca todas as matriculas de um aluno
+     * Aluno e curso sao LAZY; findById, findAll, paginacao e streaming
+     * buscam os dois na mesma consulta
+     */
+    @Override
+    protected String defaultEntityGraph() {
+        return Matricula.GRAFO_COMPLETO;
+    }
+    
+    /**
+     * Busca todas as matriculas de um aluno, com aluno e curso carregados
+     * (uma unica consulta)
      * @param alunoId ID do aluno
      * @return Lista de matriculas
      */
     public List<Matricula> findByAluno(Long alunoId) {
-        EntityManager em = JPAUtil.getEntityManager();
-        try {
+        return read(em -> {
             TypedQuery<Matricula> query = em.createQuery(
-                "SELECT m FROM Matricula m WHERE m.aluno.id = :alunoId", Matricula.class);
+                "SELECT m FROM Matricula m JOIN FETCH m.aluno JOIN FETCH m.curso " +
+                "WHERE m.aluno.id = :alunoId", Matricula.class);
             query.setParameter("alunoId", alunoId);
             return query.getResultList();
-        } finally {
-            em.close();
-        }
+        });
     }
     
     /**
-     * Busca todas as matriculas de um curso
+     * Busca todas as matriculas de um curso, com aluno e curso carregados
+     * (uma unica consulta)
      * @param cursoId ID do curso
      * @return Lista de matriculas
      */
     public List<Matricula> findByCurso(Long cursoId) {
-        EntityManager em = JPAUtil.getEntityManager();
-        try {
+        return read(em -> {
             TypedQuery<Matricula> query = em.createQuery(
-                "SELECT m FROM Matricula m WHERE m.curso.id = :cursoId", Matricula.class);
+                "SELECT m FROM Matricula m JOIN FETCH m.aluno JOIN FETCH m.curso " +
+                "WHERE m.curso.id = :cursoId", Matricula.class);
             query.setParameter("cursoId", cursoId);
             return query.getResultList();
-        } finally {
-            em.close();
+        });
+    }
+    
+    /**
+     * Lista de chamada de um curso: matriculas com o aluno carregado
+     * O curso nao e carregado (o chamador ja o conhece); apenas o ID fica disponivel
+     * @param cursoId ID do curso
+     * @return Lista de matriculas
+     */
+    public List<Matricula> findByCursoWithAlunos(Long cursoId) {
+        return read(em -> {
+            TypedQuery<Matricula> query = em.createQuery(
+                "SELECT m FROM Matricula m JOIN FETCH m.aluno WHERE m.curso.id = :cursoId", Matricula.class);
+            query.setParameter("cursoId", cursoId);
+            return query.getResultList();
+        });
+    }
+    
+    /**
+     * Historico de um aluno: matriculas com o curso carregado
+     * O aluno nao e carregado (o chamador ja o conhece); apenas o ID fica disponivel
+     * @param alunoId ID do aluno
+     * @return Lista de matriculas
+     */
+    public List<Matricula> findByAlunoWithCursos(Long alunoId) {
+        return read(em -> {
+            TypedQuery<Matricula> query = em.createQuery(
+                "SELECT m FROM Matricula m JOIN FETCH m.curso WHERE m.aluno.id = :alunoId", Matricula.class);
+            query.setParameter("alunoId", alunoId);
+            return query.getResultList();
+        });
+    }
+    
+    /**
+     * Percorre as matriculas de um curso em streaming, com memoria constante
+     * @param cursoId ID do curso
+     * @param action Acao executada para cada matricula
+     */
+    public void streamByCurso(Long cursoId, Consumer<Matricula> action) {
+        try (Stream<Matricula> stream = streamByCurso(cursoId)) {
+            stream.forEach(action);
         }
     }
     
     /**
-     * Busca matriculas por status
+     * Retorna as matriculas de um curso em um Stream lido por cursor
+     * O Stream deve ser fechado (try-with-resources)
+     * @param cursoId ID do curso
+     * @return Stream de matriculas
+     */
+    public Stream<Matricula> streamByCurso(Long cursoId) {
+        return stream(em -> em.createQuery(
+                "SELECT m FROM Matricula m WHERE m.curso.id = :cursoId", Matricula.class)
+                .setParameter("cursoId", cursoId));
+    }
+    
+    /**
+     * Busca matriculas por status, com aluno e curso carregados
+     * (uma unica consulta)
      * @param status Status da matricula
      * @return Lista de matriculas
      */
     public List<Matricula> findByStatus(Matricula.StatusMatricula status) {
-        EntityManager em = JPAUtil.getEntityManager();
-        try {
+        return read(em -> {
             TypedQuery<Matricula> query = em.createQuery(
-                "SELECT m FROM Matricula m WHERE m.status = :status", Matricula.class);
+                "SELECT m FROM Matricula m JOIN FETCH m.aluno JOIN FETCH m.curso " +
+                "WHERE m.status = :status", Matricula.class);
             query.setParameter("status", status);
             return query.getResultList();
-        } finally {
-            em.close();
+        });
+    }
+    
+    /**
+     * Percorre as matriculas com o status informado em streaming, com memoria constante
+     * @param status Status da matricula
+     * @param action Acao executada para cada matricula
+     */
+    public void streamByStatus(Matricula.StatusMatricula status, Consumer<Matricula> action) {
+        try (Stream<Matricula> stream = streamByStatus(status)) {
+            stream.forEach(action);
         }
     }
     
+    /**
+     * Retorna as matriculas com o status informado em um Stream lido por cursor
+     * O Stream deve ser fechado (try-with-resources)
+     * @param status Status da matricula
+     * @return Stream de matriculas
+     */
+    public Stream<Matricula> streamByStatus(Matricula.StatusMatricula status) {
+        return stream(em -> em.createQuery(
+                "SELECT m FROM Matricula m WHERE m.status = :status", Matricula.class)
+                .setParameter("status", status));
+    }
+    
+    /**
+     * Matricula o aluno no curso de forma atomica, em uma unica ida ao banco
+     * Usa INSERT ... ON CONFLICT sobre o indice unico parcial (aluno_id, curso_id)
+     * WHERE status = 'ATIVA' (migracao V3): chamadas concorrentes para o mesmo
+     * aluno e curso nunca geram duas matriculas ativas. Substitui a sequencia
+     * existsActiveMatricula + save.
+     * @param alunoId ID do aluno
+     * @param cursoId ID do curso
+     * @return ID da nova matricula ou null se o aluno ja tem matricula ativa no curso
+     */
+    public Long enroll(Long alunoId, Long cursoId) {
+        return write("salvar", em -> {
+            List<?> ids = em.createNativeQuery(
+                "INSERT INTO matriculas (id, aluno_id, curso_id, data_matricula, status, version) " +
+                "VALUES (nextval('matriculas_seq'), :alunoId, :cursoId, current_date, 'ATIVA', 0) " +
+                "ON CONFLICT (aluno_id, curso_id) WHERE status = 'ATIVA' DO NOTHING " +
+                "RETURNING id")
+                .setParameter("alunoId", alunoId)
+                .setParameter("cursoId", cursoId)
+                .getResultList();
+            return ids.isEmpty() ? null : ((Number) ids.get(0)).longValue();
+        });
+    }
+    
+    /**
+     * Muda o status de todas as matriculas de um curso de uma vez (fechamento do semestre),
+     * em lotes de BULK_CHUNK_SIZE linhas
+     * @param cursoId ID do curso (null para todos os cursos)
+     * @param de Status atual
+     * @param para Novo status
+     * @return Quantidade de matriculas alteradas
+     * @see #transitionStatus(Long, Matricula.StatusMatricula, Matricula.StatusMatricula, int)
+     */
+    public int transitionStatus(Long cursoId, Matricula.StatusMatricula de, Matricula.StatusMatricula para) {
+        return transitionStatus(cursoId, de, para, BULK_CHUNK_SIZE);
+    }
+    
+    /**
+     * Muda o status das matriculas com UPDATE em lotes, sem carregar entidades
+     * Cada lote bloqueia ate chunkSize linhas em ordem de id e e confirmado em sua
+     * propria transacao, entao o fechamento de um curso grande nao segura bloqueios
+     * por muito tempo. A versao de cada linha e incrementada (quem tiver a matricula
+     * aberta recebe OptimisticLockException ao salvar) e os contadores do painel sao
+     * ajustados pelo trigger. Somente as consultas em cache sobre matriculas sao
+     * invalidadas; o cache de alunos e cursos continua valido. Entidades ja carregadas
+     * na UnitOfWork ativa nao sao atualizadas.
+     * Passar para ATIVA falha se o aluno ja tiver outra matricula ativa no curso (V3).
+     * @param cursoId ID do curso (null para todos os cursos)
+     * @param de Status atual
+     * @param para Novo status
+     * @param chunkSize Maximo de linhas por transacao
+     * @return Quantidade de matriculas alteradas
+     */
+    public int transitionStatus(Long cursoId, Matricula.StatusMatricula de, Matricula.StatusMatricula para,
+                                int chunkSize) {
+        if (de == para) {
+            return 0;
+        }
+        String filtro = cursoId == null ? "" : "AND curso_id = :cursoId ";
+        return executeInChunks("atualizar status de", chunkSize, em -> {
+            NativeQuery<?> query = em.createNativeQuery(
+                "UPDATE matriculas SET status = :para, version = version + 1 " +
+                "WHERE id IN (SELECT id FROM matriculas WHERE status = :de " + filtro +
+                "ORDER BY id LIMIT :limite FOR UPDATE)")
+                .unwrap(NativeQuery.class)
+                .addSynchronizedEntityClass(Matricula.class);
+            query.setParameter("de", de.name());
+            query.setParameter("para", para.name());
+            query.setParameter("limite", chunkSize);
+            if (cursoId != null) {
+                query.setParameter("cursoId", cursoId);
+            }
+            return query.executeUpdate();
+        });
+    }
+    
     /**
      * Verifica se ja existe uma matricula ativa para o aluno no curso
      * @param alunoId ID do aluno
@@ -74,8 +234,7 @@ public class MatriculaDAO extends GenericDAO<Matricula> {
      * @return true se ja existe matricula ativa
      */
     public boolean existsActiveMatricula(Long alunoId, Long cursoId) {
-        EntityManager em = JPAUtil.getEntityManager();
-        try {
+        return read(em -> {
             TypedQuery<Long> query = em.createQuery(
                 "SELECT COUNT(m) FROM Matricula m WHERE m.aluno.id = :alunoId " +
                 "AND m.curso.id = :cursoId AND m.status = :status", Long.class);
@@ -83,8 +242,54 @@ public class MatriculaDAO extends GenericDAO<Matricula> {
             query.setParameter("cursoId", cursoId);
             query.setParameter("status", Matricula.StatusMatricula.ATIVA);
             return query.getSingleResult() > 0;
-        } finally {
-            em.close();
-        }
+        });
+    }
+    
+    /**
+     * Linhas para a grade de matriculas de um curso (sem carregar entidades)
+     * @param cursoId ID do curso
+     * @return Lista de linhas ordenada por nome do aluno
+     */
+    public List<MatriculaLinha> findLinhasByCurso(Long cursoId) {
+        return read(em -> {
+            return em.createQuery(
+                "SELECT NEW model.dto.MatriculaLinha(m.id, a.nome, a.matricula, c.nome, m.status, m.dataMatricula) " +
+                "FROM Matricula m JOIN m.aluno a JOIN m.curso c " +
+                "WHERE c.id = :cursoId ORDER BY a.nome, m.id", MatriculaLinha.class)
+                .setParameter("cursoId", cursoId)
+                .getResultList();
+        });
+    }
+    
+    /**
+     * Linhas para o historico de matriculas de um aluno (sem carregar entidades)
+     * @param alunoId ID do aluno
+     * @return Lista de linhas da matricula mais recente para a mais antiga
+     */
+    public List<MatriculaLinha> findLinhasByAluno(Long alunoId) {
+        return read(em -> {
+            return em.createQuery(
+                "SELECT NEW model.dto.MatriculaLinha(m.id, a.nome, a.matricula, c.nome, m.status, m.dataMatricula) " +
+                "FROM Matricula m JOIN m.aluno a JOIN m.curso c " +
+                "WHERE a.id = :alunoId ORDER BY m.dataMatricula DESC, m.id", MatriculaLinha.class)
+                .setParameter("alunoId", alunoId)
+                .getResultList();
+        });
+    }
+    
+    /**
+     * Linhas para a grade de matriculas com o status informado (sem carregar entidades)
+     * @param status Status da matricula
+     * @return Lista de linhas ordenada por nome do aluno
+     */
+    public List<MatriculaLinha> findLinhasByStatus(Matricula.StatusMatricula status) {
+        return read(em -> {
+            return em.createQuery(
+                "SELECT NEW model.dto.MatriculaLinha(m.id, a.nome, a.matricula, c.nome, m.status, m.dataMatricula) " +
+                "FROM Matricula m JOIN m.aluno a JOIN m.curso c " +
+                "WHERE m.status = :status ORDER BY a.nome, m.id", MatriculaLinha.class)
+                .setParameter("status", status)
+                .getResultList();
+        });
     }
 }
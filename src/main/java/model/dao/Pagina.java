@@ -0,0 +1,57 @@
+package model.dao;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Página de resultados obtida por paginação keyset (seek)
+ * Para buscar a próxima página, passe o id (e a chave de ordenação, se houver)
+ * do último item desta página para o mesmo método do DAO
+ * @param <T> Tipo da entidade
+ */
+public class Pagina<T> {
+
+    private final List<T> itens;
+    private final boolean hasNext;
+    private final Long ultimoId;
+
+    public Pagina(List<T> itens, boolean hasNext, Long ultimoId) {
+        this.itens = Collections.unmodifiableList(itens);
+        this.hasNext = hasNext;
+        this.ultimoId = ultimoId;
+    }
+
+    /**
+     * @return Itens da página, na ordem da consulta
+     */
+    public List<T> getItens() {
+        return itens;
+    }
+
+    /**
+     * @return true se existe ao menos mais um item depois desta página
+     */
+    public boolean hasNext() {
+        return hasNext;
+    }
+
+    /**
+     * @return ID do último item da página (cursor para a próxima) ou null se vazia
+     */
+    public Long getUltimoId() {
+        return ultimoId;
+    }
+
+    public boolean isEmpty() {
+        return itens.isEmpty();
+    }
+
+    @Override
+    public String toString() {
+        return "Pagina{" +
+                "itens=" + itens.size() +
+                ", hasNext=" + hasNext +
+                ", ultimoId=" + ultimoId +
+                '}';
+    }
+}
@@ -0,0 +1,258 @@
+package model.dao;
+
+import model.dto.RelatorioMatricula;
+import model.entities.Matricula.StatusMatricula;
+import org.hibernate.query.NativeQuery;
+import util.Config;
+import util.JPAUtil;
+import util.UnitOfWork;
+
+import javax.persistence.EntityManager;
+import javax.persistence.Query;
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Relatórios de matrículas por curso, ano e status
+ *
+ * Lê a visão materializada relatorio_matriculas (migração V5__relatorio_matriculas.sql), que guarda os
+ * agregados já calculados: o custo das consultas depende do número de cursos e anos,
+ * não do histórico de matrículas. Os dados refletem a última atualização (atualizar()),
+ * que pode ser feita sob demanda ou agendada (agendarAtualizacao()).
+ */
+public class RelatorioDAO {
+    
+    private static final String VISAO = "relatorio_matriculas";
+    
+    // Chave do advisory lock que impede duas atualizações simultâneas (em qualquer instância)
+    private static final String LOCK = "SELECT pg_try_advisory_xact_lock(hashtext('" + VISAO + "'))";
+    
+    private static ScheduledExecutorService scheduler;
+    
+    /**
+     * Lista as linhas do relatório que atendem ao filtro, ordenadas por curso, ano e status
+     * @param filtro Filtro (use new Filtro() para todas as linhas)
+     * @return Linhas do relatório
+     */
+    @SuppressWarnings("unchecked")
+    public List<RelatorioMatricula> listar(Filtro filtro) {
+        return read(em -> {
+            Query query = filtro.criar(em,
+                "SELECT curso_id, curso_codigo, curso_nome, ano, status, total, alunos, idade_media " +
+                "FROM " + VISAO, " ORDER BY curso_nome, curso_id, ano, status");
+            List<RelatorioMatricula> linhas = new ArrayList<>();
+            for (Object[] linha : (List<Object[]>) query.getResultList()) {
+                linhas.add(new RelatorioMatricula(((Number) linha[0]).longValue(), (String) linha[1],
+                        (String) linha[2], ((Number) linha[3]).intValue(), StatusMatricula.valueOf((String) linha[4]),
+                        ((Number) linha[5]).longValue(), ((Number) linha[6]).longValue(), (BigDecimal) linha[7]));
+            }
+            return linhas;
+        });
+    }
+    
+    /**
+     * Soma as matrículas por ano
+     * @param filtro Filtro
+     * @return Total de matrículas por ano, em ordem crescente de ano
+     */
+    public Map<Integer, Long> totaisPorAno(Filtro filtro) {
+        Map<Integer, Long> totais = new TreeMap<>();
+        for (Object[] linha : somar(filtro, "ano")) {
+            totais.put(((Number) linha[0]).intValue(), ((Number) linha[1]).longValue());
+        }
+        return totais;
+    }
+    
+    /**
+     * Soma as matrículas por status
+     * @param filtro Filtro
+     * @return Total de matrículas por status (todos os status, mesmo com zero)
+     */
+    public Map<StatusMatricula, Long> totaisPorStatus(Filtro filtro) {
+        Map<StatusMatricula, Long> totais = new EnumMap<>(StatusMatricula.class);
+        for (StatusMatricula status : StatusMatricula.values()) {
+            totais.put(status, 0L);
+        }
+        for (Object[] linha : somar(filtro, "status")) {
+            totais.put(StatusMatricula.valueOf((String) linha[0]), ((Number) linha[1]).longValue());
+        }
+        return totais;
+    }
+    
+    @SuppressWarnings("unchecked")
+    private List<Object[]> somar(Filtro filtro, String coluna) {
+        return read(em -> filtro.criar(em, "SELECT " + coluna + ", sum(total) FROM " + VISAO,
+                " GROUP BY " + coluna).getResultList());
+    }
+    
+    /**
+     * Recalcula o relatório (REFRESH MATERIALIZED VIEW CONCURRENTLY)
+     * As leituras continuam sendo atendidas com os dados anteriores durante a atualização.
+     * Se outra atualização já estiver em andamento (nesta ou em outra instância), não faz nada.
+     * Dentro de uma UnitOfWork, roda na transação da unidade e o lock dura até o commit dela
+     * @return true se atualizou, false se outra atualização estava em andamento
+     */
+    public boolean atualizar() {
+        try {
+            return UnitOfWork.inTransaction(this::atualizar);
+        } catch (RuntimeException e) {
+            throw new RuntimeException("Erro ao atualizar relatório de matrículas", e);
+        }
+    }
+    
+    private boolean atualizar(EntityManager em) {
+        if (!(Boolean) em.createNativeQuery(LOCK).getSingleResult()) {
+            return false;
+        }
+        long inicio = System.nanoTime();
+        // Sem os espaços declarados, o Hibernate descartaria todo o cache de segundo nível
+        // (entidades, coleções, natural ids e consultas) a cada atualização
+        em.createNativeQuery("REFRESH MATERIALIZED VIEW CONCURRENTLY " + VISAO)
+                .unwrap(NativeQuery.class)
+                .addSynchronizedQuerySpace(VISAO)
+                .executeUpdate();
+        em.createNativeQuery("UPDATE relatorios_atualizacao SET atualizado_em = now(), duracao_ms = :duracao " +
+                "WHERE visao = :visao")
+                .unwrap(NativeQuery.class)
+                .addSynchronizedQuerySpace("relatorios_atualizacao")
+                .setParameter("duracao", (System.nanoTime() - inicio) / 1_000_000)
+                .setParameter("visao", VISAO)
+                .executeUpdate();
+        return true;
+    }
+    
+    /**
+     * Retorna quando o relatório foi atualizado pela última vez
+     * @return Data e hora da última atualização
+     */
+    public LocalDateTime getUltimaAtualizacao() {
+        Timestamp atualizadoEm = read(em -> (Timestamp) em.createNativeQuery(
+                "SELECT atualizado_em FROM relatorios_atualizacao WHERE visao = :visao")
+                .setParameter("visao", VISAO)
+                .getSingleResult());
+        return atualizadoEm.toLocalDateTime();
+    }
+    
+    /**
+     * Agenda a atualização periódica com o intervalo de DB_REPORT_REFRESH_MINUTES (padrão 15)
+     * @return Agendamento (cancel() interrompe)
+     */
+    public ScheduledFuture<?> agendarAtualizacao() {
+        return agendarAtualizacao(Config.getIntProperty("DB_REPORT_REFRESH_MINUTES", 15), TimeUnit.MINUTES);
+    }
+    
+    /**
+     * Agenda a atualização periódica do relatório em uma thread daemon
+     * Erros são registrados e não interrompem o agendamento
+     * @param intervalo Intervalo entre o fim de uma atualização e o início da próxima
+     * @param unidade Unidade do intervalo
+     * @return Agendamento (cancel() interrompe)
+     */
+    public ScheduledFuture<?> agendarAtualizacao(long intervalo, TimeUnit unidade) {
+        return scheduler().scheduleWithFixedDelay(() -> {
+            try {
+                atualizar();
+            } catch (RuntimeException e) {
+                System.err.println("Erro na atualização agendada do relatório: " + e.getMessage());
+            }
+        }, intervalo, intervalo, unidade);
+    }
+    
+    /**
+     * Executa uma leitura no EntityManager da unidade de trabalho ativa ou, se não houver,
+     * em um EntityManager próprio (como GenericDAO.read)
+     */
+    private <R> R read(Function<EntityManager, R> work) {
+        EntityManager bound = UnitOfWork.current();
+        if (bound != null) {
+            return work.apply(bound);
+        }
+        EntityManager em = JPAUtil.getEntityManager();
+        try {
+            return work.apply(em);
+        } finally {
+            em.close();
+        }
+    }
+    
+    private static synchronized ScheduledExecutorService scheduler() {
+        if (scheduler == null) {
+            scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread thread = new Thread(r, "sica-relatorios");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+        return scheduler;
+    }
+    
+    /**
+     * Filtro das consultas de relatório; campos não informados não filtram
+     * <pre>
+     * relatorioDAO.listar(new RelatorioDAO.Filtro().curso(cursoId).anos(2020, 2024).status(ATIVA));
+     * </pre>
+     */
+    public static class Filtro {
+        private Long cursoId;
+        private Integer anoInicial;
+        private Integer anoFinal;
+        private StatusMatricula status;
+        
+        public Filtro curso(Long cursoId) {
+            this.cursoId = cursoId;
+            return this;
+        }
+        
+        public Filtro ano(int ano) {
+            return anos(ano, ano);
+        }
+        
+        /**
+         * @param anoInicial Primeiro ano (inclusive)
+         * @param anoFinal Último ano (inclusive)
+         */
+        public Filtro anos(int anoInicial, int anoFinal) {
+            this.anoInicial = anoInicial;
+            this.anoFinal = anoFinal;
+            return this;
+        }
+        
+        public Filtro status(StatusMatricula status) {
+            this.status = status;
+            return this;
+        }
+        
+        Query criar(EntityManager em, String select, String sufixo) {
+            StringBuilder sql = new StringBuilder(select).append(" WHERE true");
+            Map<String, Object> parametros = new HashMap<>();
+            if (cursoId != null) {
+                sql.append(" AND curso_id = :cursoId");
+                parametros.put("cursoId", cursoId);
+            }
+            if (anoInicial != null) {
+                sql.append(" AND ano BETWEEN :anoInicial AND :anoFinal");
+                parametros.put("anoInicial", anoInicial);
+                parametros.put("anoFinal", anoFinal);
+            }
+            if (status != null) {
+                sql.append(" AND status = :status");
+                parametros.put("status", status.name());
+            }
+            Query query = em.createNativeQuery(sql.append(sufixo).toString());
+            parametros.forEach(query::setParameter);
+            return query;
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package model.dto;
+
+/**
+ * Resumo de aluno para listagens (id, nome e matrícula)
+ * Projeção somente leitura: não é gerenciada pelo JPA e não carrega associações
+ */
+public final class AlunoResumo {
+    
+    private final Long id;
+    private final String nome;
+    private final String matricula;
+    
+    public AlunoResumo(Long id, String nome, String matricula) {
+        this.id = id;
+        this.nome = nome;
+        this.matricula = matricula;
+    }
+    
+    public Long getId() {
+        return id;
+    }
+    
+    public String getNome() {
+        return nome;
+    }
+    
+    public String getMatricula() {
+        return matricula;
+    }
+    
+    @Override
+    public String toString() {
+        return "AlunoResumo{" +
+                "id=" + id +
+                ", nome='" + nome + '\'' +
+                ", matricula='" + matricula + '\'' +
+                '}';
+    }
+}
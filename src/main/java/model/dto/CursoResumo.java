@@ -0,0 +1,39 @@
+package model.dto;
+
+/**
+ * Resumo de curso para listagens (id, nome e código)
+ * Projeção somente leitura: não é gerenciada pelo JPA e não carrega associações
+ */
+public final class CursoResumo {
+    
+    private final Long id;
+    private final String nome;
+    private final String codigo;
+    
+    public CursoResumo(Long id, String nome, String codigo) {
+        this.id = id;
+        this.nome = nome;
+        this.codigo = codigo;
+    }
+    
+    public Long getId() {
+        return id;
+    }
+    
+    public String getNome() {
+        return nome;
+    }
+    
+    public String getCodigo() {
+        return codigo;
+    }
+    
+    @Override
+    public String toString() {
+        return "CursoResumo{" +
+                "id=" + id +
+                ", nome='" + nome + '\'' +
+                ", codigo='" + codigo + '\'' +
+                '}';
+    }
+}
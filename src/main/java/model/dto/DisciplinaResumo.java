@@ -0,0 +1,39 @@
+package model.dto;
+
+/**
+ * Resumo de disciplina para listagens (id, nome e código)
+ * Projeção somente leitura: não é gerenciada pelo JPA e não carrega associações
+ */
+public final class DisciplinaResumo {
+    
+    private final Long id;
+    private final String nome;
+    private final String codigo;
+    
+    public DisciplinaResumo(Long id, String nome, String codigo) {
+        this.id = id;
+        this.nome = nome;
+        this.codigo = codigo;
+    }
+    
+    public Long getId() {
+        return id;
+    }
+    
+    public String getNome() {
+        return nome;
+    }
+    
+    public String getCodigo() {
+        return codigo;
+    }
+    
+    @Override
+    public String toString() {
+        return "DisciplinaResumo{" +
+                "id=" + id +
+                ", nome='" + nome + '\'' +
+                ", codigo='" + codigo + '\'' +
+                '}';
+    }
+}
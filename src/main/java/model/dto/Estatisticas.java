@@ -0,0 +1,139 @@
+package model.dto;
+
+import model.entities.Matricula.StatusMatricula;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Totais do painel: quantidade de alunos, cursos, disciplinas e matrículas
+ * (por status e por curso), obtidos de uma vez por EstatisticasDAO
+ */
+public final class Estatisticas {
+    
+    private final long totalAlunos;
+    private final long totalCursos;
+    private final long totalDisciplinas;
+    private final boolean estimado;
+    private final List<MatriculasCurso> matriculasPorCurso;
+    private final Map<StatusMatricula, Long> matriculasPorStatus;
+    private final long totalMatriculas;
+    
+    public Estatisticas(long totalAlunos, long totalCursos, long totalDisciplinas, boolean estimado,
+                        List<MatriculasCurso> matriculasPorCurso) {
+        this.totalAlunos = totalAlunos;
+        this.totalCursos = totalCursos;
+        this.totalDisciplinas = totalDisciplinas;
+        this.estimado = estimado;
+        this.matriculasPorCurso = Collections.unmodifiableList(matriculasPorCurso);
+        
+        Map<StatusMatricula, Long> porStatus = new EnumMap<>(StatusMatricula.class);
+        for (StatusMatricula status : StatusMatricula.values()) {
+            porStatus.put(status, 0L);
+        }
+        long total = 0;
+        for (MatriculasCurso curso : matriculasPorCurso) {
+            for (Map.Entry<StatusMatricula, Long> entry : curso.getPorStatus().entrySet()) {
+                porStatus.merge(entry.getKey(), entry.getValue(), Long::sum);
+                total += entry.getValue();
+            }
+        }
+        this.matriculasPorStatus = Collections.unmodifiableMap(porStatus);
+        this.totalMatriculas = total;
+    }
+    
+    public long getTotalAlunos() {
+        return totalAlunos;
+    }
+    
+    public long getTotalCursos() {
+        return totalCursos;
+    }
+    
+    public long getTotalDisciplinas() {
+        return totalDisciplinas;
+    }
+    
+    public long getTotalMatriculas() {
+        return totalMatriculas;
+    }
+    
+    /**
+     * @return true se os totais de alunos, cursos e disciplinas são estimativas do planejador
+     */
+    public boolean isEstimado() {
+        return estimado;
+    }
+    
+    /**
+     * @return Quantidade de matrículas por status (todos os status presentes, mesmo com zero)
+     */
+    public Map<StatusMatricula, Long> getMatriculasPorStatus() {
+        return matriculasPorStatus;
+    }
+    
+    /**
+     * @return Matrículas por curso, ordenadas pelo nome do curso (só cursos com matrículas)
+     */
+    public List<MatriculasCurso> getMatriculasPorCurso() {
+        return matriculasPorCurso;
+    }
+    
+    @Override
+    public String toString() {
+        return "Estatisticas{" +
+                "alunos=" + totalAlunos +
+                ", cursos=" + totalCursos +
+                ", disciplinas=" + totalDisciplinas +
+                ", matriculas=" + totalMatriculas +
+                ", porStatus=" + matriculasPorStatus +
+                (estimado ? ", estimado" : "") +
+                '}';
+    }
+    
+    /**
+     * Matrículas de um curso por status
+     */
+    public static final class MatriculasCurso {
+        
+        private final Long cursoId;
+        private final String cursoNome;
+        private final Map<StatusMatricula, Long> porStatus;
+        
+        public MatriculasCurso(Long cursoId, String cursoNome, Map<StatusMatricula, Long> porStatus) {
+            this.cursoId = cursoId;
+            this.cursoNome = cursoNome;
+            this.porStatus = Collections.unmodifiableMap(new EnumMap<>(porStatus));
+        }
+        
+        public Long getCursoId() {
+            return cursoId;
+        }
+        
+        public String getCursoNome() {
+            return cursoNome;
+        }
+        
+        /**
+         * @return Quantidade por status (status sem matrículas não aparecem)
+         */
+        public Map<StatusMatricula, Long> getPorStatus() {
+            return porStatus;
+        }
+        
+        public long getTotal() {
+            return porStatus.values().stream().mapToLong(Long::longValue).sum();
+        }
+        
+        @Override
+        public String toString() {
+            return "MatriculasCurso{" +
+                    "cursoId=" + cursoId +
+                    ", cursoNome='" + cursoNome + '\'' +
+                    ", porStatus=" + porStatus +
+                    '}';
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package model.dto;
+
+import model.entities.Matricula;
+
+import java.time.LocalDate;
+
+/**
+ * Linha de matrícula para grades (aluno, curso, status e data)
+ * Projeção somente leitura: não é gerenciada pelo JPA e não carrega associações
+ */
+public final class MatriculaLinha {
+    
+    private final Long id;
+    private final String alunoNome;
+    private final String alunoMatricula;
+    private final String cursoNome;
+    private final Matricula.StatusMatricula status;
+    private final LocalDate dataMatricula;
+    
+    public MatriculaLinha(Long id, String alunoNome, String alunoMatricula, String cursoNome,
+                          Matricula.StatusMatricula status, LocalDate dataMatricula) {
+        this.id = id;
+        this.alunoNome = alunoNome;
+        this.alunoMatricula = alunoMatricula;
+        this.cursoNome = cursoNome;
+        this.status = status;
+        this.dataMatricula = dataMatricula;
+    }
+    
+    public Long getId() {
+        return id;
+    }
+    
+    public String getAlunoNome() {
+        return alunoNome;
+    }
+    
+    public String getAlunoMatricula() {
+        return alunoMatricula;
+    }
+    
+    public String getCursoNome() {
+        return cursoNome;
+    }
+    
+    public Matricula.StatusMatricula getStatus() {
+        return status;
+    }
+    
+    public LocalDate getDataMatricula() {
+        return dataMatricula;
+    }
+    
+    @Override
+    public String toString() {
+        return "MatriculaLinha{" +
+                "id=" + id +
+                ", alunoNome='" + alunoNome + '\'' +
+                ", alunoMatricula='" + alunoMatricula + '\'' +
+                ", cursoNome='" + cursoNome + '\'' +
+                ", status=" + status +
+                ", dataMatricula=" + dataMatricula +
+                '}';
+    }
+}
@@ -0,0 +1,86 @@
+package model.dto;
+
+import model.entities.Matricula.StatusMatricula;
+
+import java.math.BigDecimal;
+
+/**
+ * Linha do relatório de matrículas: totais de um curso em um ano para um status
+ * Lida da visão materializada relatorio_matriculas (ver RelatorioDAO)
+ */
+public final class RelatorioMatricula {
+    
+    private final Long cursoId;
+    private final String cursoCodigo;
+    private final String cursoNome;
+    private final Integer ano;
+    private final StatusMatricula status;
+    private final long total;
+    private final long alunos;
+    private final BigDecimal idadeMedia;
+    
+    public RelatorioMatricula(Long cursoId, String cursoCodigo, String cursoNome, Integer ano,
+                              StatusMatricula status, long total, long alunos, BigDecimal idadeMedia) {
+        this.cursoId = cursoId;
+        this.cursoCodigo = cursoCodigo;
+        this.cursoNome = cursoNome;
+        this.ano = ano;
+        this.status = status;
+        this.total = total;
+        this.alunos = alunos;
+        this.idadeMedia = idadeMedia;
+    }
+    
+    public Long getCursoId() {
+        return cursoId;
+    }
+    
+    public String getCursoCodigo() {
+        return cursoCodigo;
+    }
+    
+    public String getCursoNome() {
+        return cursoNome;
+    }
+    
+    public Integer getAno() {
+        return ano;
+    }
+    
+    public StatusMatricula getStatus() {
+        return status;
+    }
+    
+    /**
+     * @return Quantidade de matrículas
+     */
+    public long getTotal() {
+        return total;
+    }
+    
+    /**
+     * @return Quantidade de alunos distintos
+     */
+    public long getAlunos() {
+        return alunos;
+    }
+    
+    /**
+     * @return Idade média dos alunos na data da matrícula, ou null se nenhum tem data de nascimento
+     */
+    public BigDecimal getIdadeMedia() {
+        return idadeMedia;
+    }
+    
+    @Override
+    public String toString() {
+        return "RelatorioMatricula{" +
+                "curso='" + cursoCodigo + '\'' +
+                ", ano=" + ano +
+                ", status=" + status +
+                ", total=" + total +
+                ", alunos=" + alunos +
+                ", idadeMedia=" + idadeMedia +
+                '}';
+    }
+}
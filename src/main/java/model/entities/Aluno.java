@@ -1,21 +1,35 @@
 package model.entities;
 
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.DynamicUpdate;
+import org.hibernate.annotations.NaturalId;
+import org.hibernate.annotations.NaturalIdCache;
+import org.hibernate.annotations.OnDelete;
+import org.hibernate.annotations.OnDeleteAction;
+
 import javax.persistence.*;
 import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.List;
 
 @Entity
-@Table(name = "alunos")
+@DynamicUpdate
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
+@NaturalIdCache
+@Table(name = "alunos", indexes = @Index(name = "idx_alunos_nome_id", columnList = "nome, id"))
 public class Aluno {
     
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "alunos_seq")
+    @SequenceGenerator(name = "alunos_seq", sequenceName = "alunos_seq", allocationSize = 50)
     private Long id;
     
     @Column(nullable = false, length = 100)
     private String nome;
     
+    @NaturalId(mutable = true)
     @Column(unique = true, nullable = false, length = 20)
     private String matricula;
     
@@ -28,7 +42,13 @@ public class Aluno {
     @Column(length = 20)
     private String telefone;
     
+    // Controle de concorrência otimista (dois clientes editando o mesmo aluno)
+    @Version
+    private Long version;
+    
+    // Removidas pelo banco junto com o aluno (fk_matriculas_aluno ON DELETE CASCADE, migração V6)
     @OneToMany(mappedBy = "aluno", cascade = CascadeType.ALL, orphanRemoval = true)
+    @OnDelete(action = OnDeleteAction.CASCADE)
     private List<Matricula> matriculas = new ArrayList<>();
     
     // Construtores
@@ -98,6 +118,10 @@ public class Aluno {
         this.matriculas = matriculas;
     }
     
+    public Long getVersion() {
+        return version;
+    }
+    
     @Override
     public String toString() {
         return "Aluno{" +
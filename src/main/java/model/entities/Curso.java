@@ -1,20 +1,36 @@
 package model.entities;
 
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.DynamicUpdate;
+import org.hibernate.annotations.NaturalId;
+import org.hibernate.annotations.NaturalIdCache;
+import org.hibernate.annotations.OnDelete;
+import org.hibernate.annotations.OnDeleteAction;
+
 import javax.persistence.*;
 import java.util.ArrayList;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Set;
 
 @Entity
-@Table(name = "cursos")
+@DynamicUpdate
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
+@NaturalIdCache
+@Table(name = "cursos", indexes = @Index(name = "idx_cursos_nome_id", columnList = "nome, id"))
 public class Curso {
     
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "cursos_seq")
+    @SequenceGenerator(name = "cursos_seq", sequenceName = "cursos_seq", allocationSize = 50)
     private Long id;
     
     @Column(nullable = false, length = 100)
     private String nome;
     
+    @NaturalId(mutable = true)
     @Column(unique = true, nullable = false, length = 20)
     private String codigo;
     
@@ -24,15 +40,24 @@ public class Curso {
     @Column(name = "carga_horaria")
     private Integer cargaHoraria;
     
+    // Controle de concorrência otimista (edições simultâneas do mesmo curso)
+    @Version
+    private Long version;
+    
+    // Set, não List: incluir ou remover uma disciplina grava só a linha alterada em
+    // curso_disciplina (uma List sem índice é apagada e regravada inteira)
     @ManyToMany
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
     @JoinTable(
         name = "curso_disciplina",
         joinColumns = @JoinColumn(name = "curso_id"),
         inverseJoinColumns = @JoinColumn(name = "disciplina_id")
     )
-    private List<Disciplina> disciplinas = new ArrayList<>();
+    private Set<Disciplina> disciplinas = new LinkedHashSet<>();
     
+    // Removidas pelo banco junto com o curso (fk_matriculas_curso ON DELETE CASCADE, migração V6)
     @OneToMany(mappedBy = "curso", cascade = CascadeType.ALL, orphanRemoval = true)
+    @OnDelete(action = OnDeleteAction.CASCADE)
     private List<Matricula> matriculas = new ArrayList<>();
     
     // Construtores
@@ -85,11 +110,11 @@ public class Curso {
         this.cargaHoraria = cargaHoraria;
     }
     
-    public List<Disciplina> getDisciplinas() {
+    public Set<Disciplina> getDisciplinas() {
         return disciplinas;
     }
     
-    public void setDisciplinas(List<Disciplina> disciplinas) {
+    public void setDisciplinas(Set<Disciplina> disciplinas) {
         this.disciplinas = disciplinas;
     }
     
@@ -101,6 +126,10 @@ public class Curso {
         this.matriculas = matriculas;
     }
     
+    public Long getVersion() {
+        return version;
+    }
+    
     @Override
     public String toString() {
         return "Curso{" +
@@ -1,20 +1,32 @@
 package model.entities;
 
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.DynamicUpdate;
+import org.hibernate.annotations.NaturalId;
+import org.hibernate.annotations.NaturalIdCache;
+
 import javax.persistence.*;
 import java.util.ArrayList;
 import java.util.List;
 
 @Entity
-@Table(name = "disciplinas")
+@DynamicUpdate
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
+@NaturalIdCache
+@Table(name = "disciplinas", indexes = @Index(name = "idx_disciplinas_nome_id", columnList = "nome, id"))
 public class Disciplina {
     
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "disciplinas_seq")
+    @SequenceGenerator(name = "disciplinas_seq", sequenceName = "disciplinas_seq", allocationSize = 50)
     private Long id;
     
     @Column(nullable = false, length = 100)
     private String nome;
     
+    @NaturalId(mutable = true)
     @Column(unique = true, nullable = false, length = 20)
     private String codigo;
     
@@ -24,6 +36,10 @@ public class Disciplina {
     @Column(length = 500)
     private String ementa;
     
+    // Controle de concorrência otimista (edições simultâneas da ementa ou da carga horária)
+    @Version
+    private Long version;
+    
     @ManyToMany(mappedBy = "disciplinas")
     private List<Curso> cursos = new ArrayList<>();
     
@@ -86,6 +102,10 @@ public class Disciplina {
         this.cursos = cursos;
     }
     
+    public Long getVersion() {
+        return version;
+    }
+    
     @Override
     public String toString() {
         return "Disciplina{" +
@@ -1,21 +1,35 @@
 package model.entities;
 
+import org.hibernate.Hibernate;
+import org.hibernate.annotations.DynamicUpdate;
+
 import javax.persistence.*;
 import java.time.LocalDate;
 
 @Entity
+@DynamicUpdate
 @Table(name = "matriculas")
+@NamedEntityGraph(name = Matricula.GRAFO_COMPLETO, attributeNodes = {
+    @NamedAttributeNode("aluno"),
+    @NamedAttributeNode("curso")
+})
 public class Matricula {
     
+    /**
+     * Grafo que carrega aluno e curso junto com a matrícula, em uma única consulta
+     */
+    public static final String GRAFO_COMPLETO = "Matricula.completa";
+    
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "matriculas_seq")
+    @SequenceGenerator(name = "matriculas_seq", sequenceName = "matriculas_seq", allocationSize = 50)
     private Long id;
     
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "aluno_id", nullable = false)
     private Aluno aluno;
     
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "curso_id", nullable = false)
     private Curso curso;
     
@@ -26,6 +40,10 @@ public class Matricula {
     @Column(nullable = false, length = 20)
     private StatusMatricula status;
     
+    // Controle de concorrência otimista (trancar/cancelar ao mesmo tempo em dois clientes)
+    @Version
+    private Long version;
+    
     // Enum para status da matrícula
     public enum StatusMatricula {
         ATIVA,
@@ -88,12 +106,16 @@ public class Matricula {
         this.status = status;
     }
     
+    public Long getVersion() {
+        return version;
+    }
+    
     @Override
     public String toString() {
         return "Matricula{" +
                 "id=" + id +
-                ", aluno=" + (aluno != null ? aluno.getNome() : "null") +
-                ", curso=" + (curso != null ? curso.getNome() : "null") +
+                ", aluno=" + (aluno == null ? "null" : Hibernate.isInitialized(aluno) ? aluno.getNome() : "#" + aluno.getId()) +
+                ", curso=" + (curso == null ? "null" : Hibernate.isInitialized(curso) ? curso.getNome() : "#" + curso.getId()) +
                 ", dataMatricula=" + dataMatricula +
                 ", status=" + status +
                 '}';
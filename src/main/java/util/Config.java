@@ -47,6 +47,25 @@ public class Config {
         return defaultValue;
     }
     
+    /**
+     * Obtém uma propriedade numérica, priorizando variáveis de ambiente
+     * @param key Nome da propriedade
+     * @param defaultValue Valor padrão se não encontrar ou se o valor for inválido
+     * @return Valor da propriedade
+     */
+    public static int getIntProperty(String key, int defaultValue) {
+        String value = getProperty(key, null);
+        if (value == null) {
+            return defaultValue;
+        }
+        try {
+            return Integer.parseInt(value.trim());
+        } catch (NumberFormatException e) {
+            System.out.println("ℹ Valor inválido para " + key + ": '" + value + "'. Usando " + defaultValue + ".");
+            return defaultValue;
+        }
+    }
+
     /**
      * Configura as propriedades do sistema para o JPA usar
      * Útil para configurar credenciais do Railway via código
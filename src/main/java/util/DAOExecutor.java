@@ -0,0 +1,123 @@
+package util;
+
+import java.lang.reflect.Method;
+import java.util.List;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Cria o executor das chamadas assíncronas aos DAOs
+ * A concorrência é limitada ao tamanho do pool de conexões: mais threads que
+ * conexões só ficariam esperando no pool
+ */
+public class DAOExecutor {
+    
+    /**
+     * Cria um executor com no máximo maxConcurrency tarefas simultâneas
+     * Em JDKs com virtual threads (21+), cada tarefa roda em uma virtual thread e um
+     * semáforo limita a concorrência; nos demais, usa um pool fixo de threads daemon
+     * com fila limitada (DB_ASYNC_QUEUE_SIZE)
+     * @param maxConcurrency Máximo de tarefas executando ao mesmo tempo
+     * @return ExecutorService
+     */
+    public static ExecutorService create(int maxConcurrency) {
+        ExecutorService virtual = newVirtualThreadExecutor();
+        if (virtual != null) {
+            return new LimitedExecutor(virtual, maxConcurrency);
+        }
+        int queueSize = Config.getIntProperty("DB_ASYNC_QUEUE_SIZE", 1000);
+        return new ThreadPoolExecutor(maxConcurrency, maxConcurrency, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueSize), new DaemonThreadFactory(),
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+    
+    /**
+     * Executors.newVirtualThreadPerTaskExecutor() via reflexão, pois o projeto compila para Java 17
+     */
+    private static ExecutorService newVirtualThreadExecutor() {
+        try {
+            Method factory = java.util.concurrent.Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return (ExecutorService) factory.invoke(null);
+        } catch (ReflectiveOperationException e) {
+            return null;
+        }
+    }
+    
+    private static class DaemonThreadFactory implements ThreadFactory {
+        private final AtomicInteger count = new AtomicInteger();
+        
+        @Override
+        public Thread newThread(Runnable r) {
+            Thread thread = new Thread(r, "sica-dao-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+    
+    /**
+     * Limita quantas tarefas do executor delegado rodam ao mesmo tempo
+     */
+    private static class LimitedExecutor extends AbstractExecutorService {
+        private final ExecutorService delegate;
+        private final Semaphore permits;
+        
+        LimitedExecutor(ExecutorService delegate, int maxConcurrency) {
+            this.delegate = delegate;
+            this.permits = new Semaphore(maxConcurrency, true);
+        }
+        
+        @Override
+        public void execute(Runnable command) {
+            delegate.execute(() -> {
+                try {
+                    permits.acquire();
+                } catch (InterruptedException e) {
+                    // Interrompida (shutdownNow) antes de obter a permissão: a tarefa não roda,
+                    // então é cancelada para que quem espera por ela não fique bloqueado
+                    Thread.currentThread().interrupt();
+                    if (command instanceof Future) {
+                        ((Future<?>) command).cancel(false);
+                    }
+                    return;
+                }
+                try {
+                    command.run();
+                } finally {
+                    permits.release();
+                }
+            });
+        }
+        
+        @Override
+        public void shutdown() {
+            delegate.shutdown();
+        }
+        
+        @Override
+        public List<Runnable> shutdownNow() {
+            return delegate.shutdownNow();
+        }
+        
+        @Override
+        public boolean isShutdown() {
+            return delegate.isShutdown();
+        }
+        
+        @Override
+        public boolean isTerminated() {
+            return delegate.isTerminated();
+        }
+        
+        @Override
+        public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+            return delegate.awaitTermination(timeout, unit);
+        }
+    }
+}
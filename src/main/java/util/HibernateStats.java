@@ -0,0 +1,247 @@
+package util;
+
+import org.hibernate.stat.Statistics;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Estatísticas do Hibernate publicadas via JMX
+ * Consultas, statements, consultas lentas (SlowQueryLog), carregamentos, flushes,
+ * transações e acertos dos caches. Com DB_STATS_LOG_MINUTES > 0 um resumo é
+ * impresso periodicamente.
+ */
+public class HibernateStats implements HibernateStatsMBean {
+
+    public static final String OBJECT_NAME = "sica:type=HibernateStatistics";
+
+    private static ScheduledExecutorService scheduler;
+
+    private final Statistics stats;
+
+    public HibernateStats(Statistics stats) {
+        this.stats = stats;
+    }
+
+    /**
+     * Registra o MBean no servidor JMX da plataforma e agenda o resumo periódico
+     * (DB_STATS_LOG_MINUTES, 0 = desligado)
+     * Falhas no registro são apenas avisadas: as estatísticas não impedem a aplicação de subir
+     * @param stats Estatísticas da SessionFactory
+     */
+    static synchronized void registrar(Statistics stats) {
+        HibernateStats mbean = new HibernateStats(stats);
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            ObjectName name = new ObjectName(OBJECT_NAME);
+            if (server.isRegistered(name)) {
+                server.unregisterMBean(name);
+            }
+            server.registerMBean(mbean, name);
+        } catch (JMException e) {
+            System.err.println("Erro ao registrar estatísticas no JMX: " + e.getMessage());
+        }
+
+        int minutos = Config.getIntProperty("DB_STATS_LOG_MINUTES", 0);
+        if (minutos > 0) {
+            scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread thread = new Thread(r, "sica-estatisticas");
+                thread.setDaemon(true);
+                return thread;
+            });
+            scheduler.scheduleAtFixedRate(() -> System.out.println(mbean.resumo()),
+                    minutos, minutos, TimeUnit.MINUTES);
+        }
+    }
+
+    /**
+     * Remove o MBean e encerra o resumo periódico
+     */
+    static synchronized void desregistrar() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+            scheduler = null;
+        }
+        try {
+            ObjectName name = new ObjectName(OBJECT_NAME);
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            if (server.isRegistered(name)) {
+                server.unregisterMBean(name);
+            }
+        } catch (JMException e) {
+            System.err.println("Erro ao remover estatísticas do JMX: " + e.getMessage());
+        }
+    }
+
+    @Override
+    public long getQueryExecutionCount() {
+        return stats.getQueryExecutionCount();
+    }
+
+    @Override
+    public long getQueryExecutionMaxTime() {
+        return stats.getQueryExecutionMaxTime();
+    }
+
+    @Override
+    public String getQueryExecutionMaxTimeQueryString() {
+        return stats.getQueryExecutionMaxTimeQueryString();
+    }
+
+    @Override
+    public long getPrepareStatementCount() {
+        return stats.getPrepareStatementCount();
+    }
+
+    @Override
+    public long getSlowQueryCount() {
+        return SlowQueryLog.getCount();
+    }
+
+    @Override
+    public long getSlowQueryThresholdMs() {
+        return SlowQueryLog.getThresholdMs();
+    }
+
+    @Override
+    public long getEntityLoadCount() {
+        return stats.getEntityLoadCount();
+    }
+
+    @Override
+    public long getEntityFetchCount() {
+        return stats.getEntityFetchCount();
+    }
+
+    @Override
+    public long getEntityInsertCount() {
+        return stats.getEntityInsertCount();
+    }
+
+    @Override
+    public long getEntityUpdateCount() {
+        return stats.getEntityUpdateCount();
+    }
+
+    @Override
+    public long getEntityDeleteCount() {
+        return stats.getEntityDeleteCount();
+    }
+
+    @Override
+    public long getCollectionLoadCount() {
+        return stats.getCollectionLoadCount();
+    }
+
+    @Override
+    public long getCollectionFetchCount() {
+        return stats.getCollectionFetchCount();
+    }
+
+    @Override
+    public long getFlushCount() {
+        return stats.getFlushCount();
+    }
+
+    @Override
+    public long getSessionOpenCount() {
+        return stats.getSessionOpenCount();
+    }
+
+    @Override
+    public long getTransactionCount() {
+        return stats.getTransactionCount();
+    }
+
+    @Override
+    public long getSuccessfulTransactionCount() {
+        return stats.getSuccessfulTransactionCount();
+    }
+
+    @Override
+    public long getOptimisticFailureCount() {
+        return stats.getOptimisticFailureCount();
+    }
+
+    @Override
+    public long getSecondLevelCacheHitCount() {
+        return stats.getSecondLevelCacheHitCount();
+    }
+
+    @Override
+    public long getSecondLevelCacheMissCount() {
+        return stats.getSecondLevelCacheMissCount();
+    }
+
+    @Override
+    public double getSecondLevelCacheHitRatio() {
+        return ratio(stats.getSecondLevelCacheHitCount(), stats.getSecondLevelCacheMissCount());
+    }
+
+    @Override
+    public long getQueryCacheHitCount() {
+        return stats.getQueryCacheHitCount();
+    }
+
+    @Override
+    public long getQueryCacheMissCount() {
+        return stats.getQueryCacheMissCount();
+    }
+
+    @Override
+    public double getQueryCacheHitRatio() {
+        return ratio(stats.getQueryCacheHitCount(), stats.getQueryCacheMissCount());
+    }
+
+    @Override
+    public long getNaturalIdCacheHitCount() {
+        return stats.getNaturalIdCacheHitCount();
+    }
+
+    @Override
+    public long getNaturalIdCacheMissCount() {
+        return stats.getNaturalIdCacheMissCount();
+    }
+
+    @Override
+    public boolean isStatisticsEnabled() {
+        return stats.isStatisticsEnabled();
+    }
+
+    @Override
+    public void setStatisticsEnabled(boolean enabled) {
+        stats.setStatisticsEnabled(enabled);
+    }
+
+    @Override
+    public void clear() {
+        stats.clear();
+    }
+
+    @Override
+    public String resumo() {
+        return String.format("Hibernate{consultas=%d, consultaMax=%dms, statements=%d, lentas=%d, " +
+                        "entidadesCarregadas=%d, entidadesBuscadas=%d, colecoesCarregadas=%d, flushes=%d, " +
+                        "transacoes=%d, cacheL2=%.1f%%, cacheConsultas=%.1f%%, cacheNaturalId=%.1f%%}",
+                getQueryExecutionCount(), getQueryExecutionMaxTime(), getPrepareStatementCount(),
+                getSlowQueryCount(), getEntityLoadCount(), getEntityFetchCount(), getCollectionLoadCount(),
+                getFlushCount(), getSuccessfulTransactionCount(), getSecondLevelCacheHitRatio() * 100,
+                getQueryCacheHitRatio() * 100,
+                ratio(getNaturalIdCacheHitCount(), getNaturalIdCacheMissCount()) * 100);
+    }
+
+    @Override
+    public String toString() {
+        return resumo();
+    }
+
+    private static double ratio(long hits, long misses) {
+        long total = hits + misses;
+        return total == 0 ? 0 : (double) hits / total;
+    }
+}
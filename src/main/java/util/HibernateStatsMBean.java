@@ -0,0 +1,74 @@
+package util;
+
+/**
+ * Interface JMX das estatísticas do Hibernate (ver HibernateStats)
+ * Publicada como sica:type=HibernateStatistics; visível no JConsole/VisualVM
+ */
+public interface HibernateStatsMBean {
+
+    long getQueryExecutionCount();
+
+    long getQueryExecutionMaxTime();
+
+    String getQueryExecutionMaxTimeQueryString();
+
+    long getPrepareStatementCount();
+
+    long getSlowQueryCount();
+
+    long getSlowQueryThresholdMs();
+
+    long getEntityLoadCount();
+
+    long getEntityFetchCount();
+
+    long getEntityInsertCount();
+
+    long getEntityUpdateCount();
+
+    long getEntityDeleteCount();
+
+    long getCollectionLoadCount();
+
+    long getCollectionFetchCount();
+
+    long getFlushCount();
+
+    long getSessionOpenCount();
+
+    long getTransactionCount();
+
+    long getSuccessfulTransactionCount();
+
+    long getOptimisticFailureCount();
+
+    long getSecondLevelCacheHitCount();
+
+    long getSecondLevelCacheMissCount();
+
+    double getSecondLevelCacheHitRatio();
+
+    long getQueryCacheHitCount();
+
+    long getQueryCacheMissCount();
+
+    double getQueryCacheHitRatio();
+
+    long getNaturalIdCacheHitCount();
+
+    long getNaturalIdCacheMissCount();
+
+    boolean isStatisticsEnabled();
+
+    void setStatisticsEnabled(boolean enabled);
+
+    /**
+     * Zera os contadores
+     */
+    void clear();
+
+    /**
+     * @return Resumo de uma linha com os principais contadores
+     */
+    String resumo();
+}
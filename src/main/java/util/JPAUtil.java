@@ -1,8 +1,14 @@
 package util;
 
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+
 import javax.persistence.EntityManager;
 import javax.persistence.EntityManagerFactory;
 import javax.persistence.Persistence;
+import javax.sql.DataSource;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -11,34 +17,98 @@ import java.util.Map;
  * Implementa o padrão Singleton para garantir uma única instância do EntityManagerFactory
  */
 public class JPAUtil {
-    
+
     private static EntityManagerFactory emf;
-    
+    private static HikariDataSource dataSource;
+    private static DataSource instrumentedDataSource;
+    private static final PoolMetrics poolMetrics = new PoolMetrics();
+    private static final int batchSize = Config.getIntProperty("DB_BATCH_SIZE", 50);
+
     // Bloco estático para inicializar o EntityManagerFactory
     static {
         try {
-            // Configurar credenciais do banco via código
-            Map<String, String> properties = new HashMap<>();
-            
-            // Obter credenciais (prioriza variáveis de ambiente, depois application.properties, depois padrão)
-            String dbUrl = Config.getProperty("DB_URL", "jdbc:postgresql://localhost:5432/sistema_academico");
-            String dbUser = Config.getProperty("DB_USER", "postgres");
-            String dbPassword = Config.getProperty("DB_PASSWORD", "postgres");
-            
-            properties.put("javax.persistence.jdbc.url", dbUrl);
-            properties.put("javax.persistence.jdbc.user", dbUser);
-            properties.put("javax.persistence.jdbc.password", dbPassword);
+            long inicio = System.nanoTime();
+            // GenericDAO.saveAll descarrega a sessão a cada batchSize entidades
+            if (batchSize <= 0) {
+                throw new IllegalArgumentException("DB_BATCH_SIZE deve ser positivo: " + batchSize);
+            }
+
+            // Configurar o pool de conexões via código
+            dataSource = createDataSource();
+            // Registra as execuções acima de DB_SLOW_QUERY_MS (SlowQueryLog)
+            instrumentedDataSource = SlowQueryLog.wrap(dataSource);
             
+            // O esquema é criado pelas migrações (util.Migracoes); em desenvolvimento,
+            // DB_MIGRATE_ON_START=true as aplica antes de validar
+            if (Boolean.parseBoolean(Config.getProperty("DB_MIGRATE_ON_START", "false"))) {
+                Migracoes.migrar(dataSource);
+            }
+
+            Map<String, Object> properties = new HashMap<>();
+            properties.put("hibernate.connection.datasource", instrumentedDataSource);
+
+            // Agrupa INSERTs/UPDATEs em lotes JDBC (ver GenericDAO.saveAll)
+            properties.put("hibernate.jdbc.batch_size", String.valueOf(batchSize));
+
             // Carrega as configurações do persistence.xml com as propriedades adicionais
             emf = Persistence.createEntityManagerFactory("sicaPU", properties);
-            System.out.println("EntityManagerFactory criado com sucesso!");
+            HibernateStats.registrar(emf.unwrap(SessionFactory.class).getStatistics());
+            System.out.println("EntityManagerFactory criado com sucesso em " +
+                    (System.nanoTime() - inicio) / 1_000_000 + " ms!");
         } catch (Exception e) {
             System.err.println("Erro ao criar EntityManagerFactory: " + e.getMessage());
             e.printStackTrace();
+            if (emf != null) {
+                emf.close();
+            }
+            if (dataSource != null) {
+                dataSource.close();
+            }
             throw new ExceptionInInitializerError(e);
         }
     }
-    
+
+    /**
+     * Cria o pool de conexões HikariCP
+     * Todos os parâmetros podem ser ajustados via variáveis de ambiente ou application.properties
+     */
+    private static HikariDataSource createDataSource() {
+        // Obter credenciais (prioriza variáveis de ambiente, depois application.properties, depois padrão)
+        String dbUrl = Config.getProperty("DB_URL", "jdbc:postgresql://localhost:5432/sistema_academico");
+        String dbUser = Config.getProperty("DB_USER", "postgres");
+        String dbPassword = Config.getProperty("DB_PASSWORD", "postgres");
+
+        HikariConfig config = new HikariConfig();
+        config.setPoolName("sicaPool");
+        config.setJdbcUrl(dbUrl);
+        config.setUsername(dbUser);
+        config.setPassword(dbPassword);
+
+        // Tamanho e tempos do pool
+        config.setMaximumPoolSize(Config.getIntProperty("DB_POOL_MAX_SIZE", 10));
+        config.setMinimumIdle(Config.getIntProperty("DB_POOL_MIN_IDLE", 2));
+        config.setConnectionTimeout(Config.getIntProperty("DB_POOL_CONNECTION_TIMEOUT_MS", 30000));
+        config.setIdleTimeout(Config.getIntProperty("DB_POOL_IDLE_TIMEOUT_MS", 600000));
+        config.setMaxLifetime(Config.getIntProperty("DB_POOL_MAX_LIFETIME_MS", 1800000));
+
+        // Avisa quando uma conexão fica emprestada por mais tempo que o limite (0 = desligado)
+        config.setLeakDetectionThreshold(Config.getIntProperty("DB_POOL_LEAK_DETECTION_MS", 60000));
+
+        // Cache de prepared statements no servidor (driver pgjdbc)
+        config.addDataSourceProperty("prepareThreshold",
+                Config.getIntProperty("DB_PREPARE_THRESHOLD", 5));
+        config.addDataSourceProperty("preparedStatementCacheQueries",
+                Config.getIntProperty("DB_PREPARED_STATEMENT_CACHE_QUERIES", 256));
+        config.addDataSourceProperty("preparedStatementCacheSizeMiB",
+                Config.getIntProperty("DB_PREPARED_STATEMENT_CACHE_SIZE_MIB", 5));
+
+        // Reescreve lotes de INSERT em um único INSERT com vários VALUES
+        config.addDataSourceProperty("reWriteBatchedInserts", true);
+
+        config.setMetricsTrackerFactory(poolMetrics);
+        return new HikariDataSource(config);
+    }
+
     /**
      * Retorna um novo EntityManager
      * @return EntityManager
@@ -49,18 +119,94 @@ public class JPAUtil {
         }
         return emf.createEntityManager();
     }
+
+    /**
+     * Retorna o DataSource do pool de conexões (com o log de consultas lentas)
+     * @return DataSource
+     */
+    public static DataSource getDataSource() {
+        if (instrumentedDataSource == null) {
+            throw new IllegalStateException("DataSource não foi inicializado!");
+        }
+        return instrumentedDataSource;
+    }
+
+    /**
+     * Retorna o número máximo de conexões do pool (DB_POOL_MAX_SIZE)
+     * @return Tamanho máximo do pool
+     */
+    public static int getPoolSize() {
+        if (dataSource == null) {
+            throw new IllegalStateException("DataSource não foi inicializado!");
+        }
+        return dataSource.getMaximumPoolSize();
+    }
+
+    /**
+     * Retorna o tamanho do lote JDBC configurado (DB_BATCH_SIZE)
+     * @return Tamanho do lote
+     */
+    public static int getBatchSize() {
+        return batchSize;
+    }
+
+    /**
+     * Retorna as métricas do pool de conexões (ativas, ociosas, aguardando e latência de aquisição)
+     * @return Métricas do pool
+     */
+    public static PoolMetrics getPoolMetrics() {
+        return poolMetrics;
+    }
+
+    /**
+     * Retorna as estatísticas do Hibernate (acertos e falhas do cache de segundo nível,
+     * consultas executadas, entidades carregadas etc.)
+     * @return Estatísticas do Hibernate
+     */
+    public static Statistics getStatistics() {
+        if (emf == null) {
+            throw new IllegalStateException("EntityManagerFactory não foi inicializado!");
+        }
+        return emf.unwrap(SessionFactory.class).getStatistics();
+    }
+    
+    /**
+     * Remove uma entidade do cache de segundo nível
+     * Necessário apenas quando o banco é alterado por fora do JPA
+     * @param entityClass Classe da entidade
+     * @param id ID da entidade
+     */
+    public static void evictCache(Class<?> entityClass, Object id) {
+        if (emf != null) {
+            emf.getCache().evict(entityClass, id);
+        }
+    }
     
     /**
-     * Fecha o EntityManagerFactory
+     * Descarta os resultados do cache de consultas
+     * Necessário quando linhas são inseridas por fora do JPA (ex.: COPY)
+     */
+    public static void evictQueryCache() {
+        if (emf != null) {
+            emf.unwrap(SessionFactory.class).getCache().evictQueryRegions();
+        }
+    }
+    
+    /**
+     * Fecha o EntityManagerFactory e o pool de conexões
      * Deve ser chamado ao encerrar a aplicação
      */
     public static void close() {
         if (emf != null && emf.isOpen()) {
+            HibernateStats.desregistrar();
             emf.close();
             System.out.println("EntityManagerFactory fechado!");
         }
+        if (dataSource != null && !dataSource.isClosed()) {
+            dataSource.close();
+        }
     }
-    
+
     /**
      * Verifica se o EntityManagerFactory está aberto
      * @return true se estiver aberto
@@ -0,0 +1,64 @@
+package util;
+
+import org.flywaydb.core.Flyway;
+import org.flywaydb.core.api.MigrationInfo;
+import org.flywaydb.core.api.output.MigrateResult;
+
+import javax.sql.DataSource;
+
+/**
+ * Migrações versionadas do esquema (Flyway), em src/main/resources/db/migration
+ *
+ * Devem ser executadas como um passo separado, antes de iniciar a aplicação:
+ * <pre>
+ * mvn compile exec:java -Dexec.mainClass="util.Migracoes"          # aplica as pendentes
+ * mvn compile exec:java -Dexec.mainClass="util.Migracoes" -Dexec.args="info"
+ * </pre>
+ * A aplicação só valida o esquema (hibernate.hbm2ddl.auto=validate). Bancos criados
+ * antes das migrações (pelo hbm2ddl) são adotados automaticamente: a V1 é idempotente.
+ */
+public class Migracoes {
+    
+    private static final String LOCATION = "classpath:db/migration";
+    
+    public static void main(String[] args) {
+        String dbUrl = Config.getProperty("DB_URL", "jdbc:postgresql://localhost:5432/sistema_academico");
+        Flyway flyway = configurar(Flyway.configure()
+                .dataSource(dbUrl, Config.getProperty("DB_USER", "postgres"),
+                        Config.getProperty("DB_PASSWORD", "postgres")));
+        
+        if (args.length > 0 && "info".equals(args[0])) {
+            for (MigrationInfo info : flyway.info().all()) {
+                System.out.println(info.getVersion() + " " + info.getDescription() + ": " + info.getState());
+            }
+            return;
+        }
+        migrar(flyway);
+    }
+    
+    /**
+     * Aplica as migrações pendentes usando o DataSource informado
+     * @param dataSource DataSource do banco
+     * @return Quantidade de migrações aplicadas
+     */
+    public static int migrar(DataSource dataSource) {
+        return migrar(configurar(Flyway.configure().dataSource(dataSource)));
+    }
+    
+    private static Flyway configurar(org.flywaydb.core.api.configuration.FluentConfiguration config) {
+        return config.locations(LOCATION)
+                // Bancos com tabelas e sem histórico do Flyway: aplica a partir da V1
+                .baselineOnMigrate(true)
+                .baselineVersion("0")
+                .load();
+    }
+    
+    private static int migrar(Flyway flyway) {
+        long inicio = System.nanoTime();
+        MigrateResult result = flyway.migrate();
+        long duracaoMs = (System.nanoTime() - inicio) / 1_000_000;
+        System.out.println(result.migrationsExecuted + " migração(ões) aplicada(s) em " + duracaoMs +
+                " ms; versão do esquema: " + flyway.info().current().getVersion());
+        return result.migrationsExecuted;
+    }
+}
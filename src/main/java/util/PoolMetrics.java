@@ -0,0 +1,136 @@
+package util;
+
+import com.zaxxer.hikari.metrics.IMetricsTracker;
+import com.zaxxer.hikari.metrics.MetricsTrackerFactory;
+import com.zaxxer.hikari.metrics.PoolStats;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Métricas do pool de conexões (HikariCP)
+ * Expõe conexões ativas, ociosas e threads aguardando, além da latência
+ * de obtenção de conexões, para dimensionar o pool
+ */
+public class PoolMetrics implements MetricsTrackerFactory {
+
+    private volatile PoolStats poolStats;
+
+    private final LongAdder acquisitions = new LongAdder();
+    private final LongAdder acquireNanosTotal = new LongAdder();
+    private final AtomicLong acquireNanosMax = new AtomicLong();
+    private final LongAdder usageMillisTotal = new LongAdder();
+    private final LongAdder usages = new LongAdder();
+    private final LongAdder timeouts = new LongAdder();
+
+    @Override
+    public IMetricsTracker create(String poolName, PoolStats poolStats) {
+        this.poolStats = poolStats;
+        return new IMetricsTracker() {
+            @Override
+            public void recordConnectionAcquiredNanos(long elapsedAcquiredNanos) {
+                acquisitions.increment();
+                acquireNanosTotal.add(elapsedAcquiredNanos);
+                acquireNanosMax.accumulateAndGet(elapsedAcquiredNanos, Math::max);
+            }
+
+            @Override
+            public void recordConnectionUsageMillis(long elapsedBorrowedMillis) {
+                usages.increment();
+                usageMillisTotal.add(elapsedBorrowedMillis);
+            }
+
+            @Override
+            public void recordConnectionTimeout() {
+                timeouts.increment();
+            }
+        };
+    }
+
+    /**
+     * @return Conexões em uso no momento
+     */
+    public int getActiveConnections() {
+        return poolStats != null ? poolStats.getActiveConnections() : 0;
+    }
+
+    /**
+     * @return Conexões abertas e livres no momento
+     */
+    public int getIdleConnections() {
+        return poolStats != null ? poolStats.getIdleConnections() : 0;
+    }
+
+    /**
+     * @return Total de conexões abertas no momento
+     */
+    public int getTotalConnections() {
+        return poolStats != null ? poolStats.getTotalConnections() : 0;
+    }
+
+    /**
+     * @return Threads aguardando uma conexão livre
+     */
+    public int getPendingThreads() {
+        return poolStats != null ? poolStats.getPendingThreads() : 0;
+    }
+
+    /**
+     * @return Número de conexões obtidas do pool
+     */
+    public long getAcquireCount() {
+        return acquisitions.sum();
+    }
+
+    /**
+     * @return Tempo médio para obter uma conexão, em microssegundos
+     */
+    public double getAcquireMeanMicros() {
+        long count = acquisitions.sum();
+        return count == 0 ? 0 : TimeUnit.NANOSECONDS.toMicros(acquireNanosTotal.sum()) / (double) count;
+    }
+
+    /**
+     * @return Maior tempo para obter uma conexão, em microssegundos
+     */
+    public long getAcquireMaxMicros() {
+        return TimeUnit.NANOSECONDS.toMicros(acquireNanosMax.get());
+    }
+
+    /**
+     * @return Tempo médio que uma conexão fica emprestada, em milissegundos
+     */
+    public double getUsageMeanMillis() {
+        long count = usages.sum();
+        return count == 0 ? 0 : usageMillisTotal.sum() / (double) count;
+    }
+
+    /**
+     * @return Número de tentativas que estouraram o connectionTimeout
+     */
+    public long getTimeoutCount() {
+        return timeouts.sum();
+    }
+
+    /**
+     * Zera os contadores de latência (não afeta o estado do pool)
+     */
+    public void reset() {
+        acquisitions.reset();
+        acquireNanosTotal.reset();
+        acquireNanosMax.set(0);
+        usages.reset();
+        usageMillisTotal.reset();
+        timeouts.reset();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("Pool{ativas=%d, ociosas=%d, total=%d, aguardando=%d, " +
+                        "aquisicoes=%d, aquisicaoMedia=%.1fus, aquisicaoMax=%dus, usoMedio=%.1fms, timeouts=%d}",
+                getActiveConnections(), getIdleConnections(), getTotalConnections(), getPendingThreads(),
+                getAcquireCount(), getAcquireMeanMicros(), getAcquireMaxMicros(), getUsageMeanMillis(),
+                getTimeoutCount());
+    }
+}
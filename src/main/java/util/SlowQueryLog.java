@@ -0,0 +1,206 @@
+package util;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.Statement;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Log de consultas lentas
+ * Envolve o DataSource e mede cada execução de statement; as que passam do limite
+ * (DB_SLOW_QUERY_MS) são registradas com o SQL, a quantidade de parâmetros, o tempo
+ * e o método do DAO que as disparou. Substitui o hibernate.show_sql, que imprimia
+ * todo SQL sem tempos.
+ */
+public final class SlowQueryLog {
+
+    private static final long thresholdMs = Config.getIntProperty("DB_SLOW_QUERY_MS", 200);
+    private static final long thresholdNanos = TimeUnit.MILLISECONDS.toNanos(thresholdMs);
+    private static final int MAX_SQL = 2000;
+
+    private static final LongAdder slowQueries = new LongAdder();
+
+    private SlowQueryLog() {
+    }
+
+    /**
+     * Envolve o DataSource para medir os statements
+     * Com DB_SLOW_QUERY_MS negativo o log fica desligado e o DataSource é devolvido como está
+     * @param dataSource DataSource original
+     * @return DataSource instrumentado
+     */
+    public static DataSource wrap(DataSource dataSource) {
+        if (!isEnabled()) {
+            return dataSource;
+        }
+        return proxy(DataSource.class, dataSource, (proxy, method, args) -> {
+            Object result = invoke(dataSource, method, args);
+            return result instanceof Connection ? wrapConnection((Connection) result) : result;
+        });
+    }
+
+    /**
+     * @return true se o log está ligado (DB_SLOW_QUERY_MS >= 0)
+     */
+    public static boolean isEnabled() {
+        return thresholdMs >= 0;
+    }
+
+    /**
+     * @return Limite em milissegundos a partir do qual uma execução é registrada
+     */
+    public static long getThresholdMs() {
+        return thresholdMs;
+    }
+
+    /**
+     * @return Quantidade de execuções registradas como lentas
+     */
+    public static long getCount() {
+        return slowQueries.sum();
+    }
+
+    private static Connection wrapConnection(Connection connection) {
+        return proxy(Connection.class, connection, new InvocationHandler() {
+            @Override
+            public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+                Object result = SlowQueryLog.invoke(connection, method, args);
+                if (result instanceof CallableStatement) {
+                    return wrapStatement(CallableStatement.class, (Statement) result, (Connection) proxy, (String) args[0]);
+                }
+                if (result instanceof PreparedStatement) {
+                    return wrapStatement(PreparedStatement.class, (Statement) result, (Connection) proxy, (String) args[0]);
+                }
+                if (result instanceof Statement) {
+                    return wrapStatement(Statement.class, (Statement) result, (Connection) proxy, null);
+                }
+                return result;
+            }
+        });
+    }
+
+    private static <S extends Statement> S wrapStatement(Class<S> type, Statement statement,
+                                                         Connection connection, String preparedSql) {
+        return proxy(type, statement, new InvocationHandler() {
+            private int binds;
+            private int batch;
+
+            @Override
+            public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+                String name = method.getName();
+                Class<?> declaring = method.getDeclaringClass();
+                if (name.startsWith("set")
+                        && (declaring == PreparedStatement.class || declaring == CallableStatement.class)) {
+                    binds++;
+                } else if (name.equals("clearParameters")) {
+                    binds = 0;
+                } else if (name.equals("addBatch")) {
+                    batch++;
+                } else if (name.equals("getConnection")) {
+                    return connection;
+                } else if (name.startsWith("execute")) {
+                    String sql = args != null && args.length > 0 && args[0] instanceof String
+                            ? (String) args[0] : preparedSql;
+                    boolean isBatch = name.startsWith("executeBatch") || name.startsWith("executeLargeBatch");
+                    long inicio = System.nanoTime();
+                    try {
+                        return SlowQueryLog.invoke(statement, method, args);
+                    } finally {
+                        long elapsed = System.nanoTime() - inicio;
+                        if (elapsed >= thresholdNanos) {
+                            record(sql, binds, isBatch ? batch : 0, elapsed);
+                        }
+                        if (isBatch) {
+                            binds = 0;
+                            batch = 0;
+                        }
+                    }
+                }
+                return SlowQueryLog.invoke(statement, method, args);
+            }
+        });
+    }
+
+    private static void record(String sql, int binds, int batch, long elapsedNanos) {
+        slowQueries.increment();
+        String texto = sql == null ? "(lote de statements)" : sql.replaceAll("\\s+", " ").trim();
+        if (texto.length() > MAX_SQL) {
+            texto = texto.substring(0, MAX_SQL) + "...";
+        }
+        System.err.println("[SQL lenta] " + TimeUnit.NANOSECONDS.toMillis(elapsedNanos) + " ms, " +
+                binds + " parâmetro(s)" + (batch > 0 ? ", lote de " + batch : "") +
+                ", " + caller() + ": " + texto);
+    }
+
+    /**
+     * Método de DAO mais externo na pilha (ex.: AlunoDAO.searchByNome em vez do
+     * GenericDAO.searchByText que ele chama); AsyncDAO é ignorado
+     * Fora dos DAOs (ex.: commit do UnitOfWork) usa o primeiro método da aplicação
+     */
+    private static String caller() {
+        Optional<StackWalker.StackFrame> frame = StackWalker.getInstance().walk(frames -> frames
+                .filter(f -> f.getClassName().startsWith("model.dao.")
+                        && !f.getClassName().startsWith("model.dao.Async"))
+                .reduce((inner, outer) -> outer));
+        if (frame.isEmpty()) {
+            frame = StackWalker.getInstance().walk(frames -> frames
+                    .filter(f -> isApplicationClass(f.getClassName()))
+                    .findFirst());
+        }
+        if (frame.isEmpty()) {
+            return "?";
+        }
+        String className = frame.get().getClassName();
+        className = className.substring(className.lastIndexOf('.') + 1);
+        String method = frame.get().getMethodName();
+        // Corpo de lambda (read(em -> ...)): lambda$findByNome$0 -> findByNome
+        if (method.startsWith("lambda$")) {
+            int fim = method.indexOf('$', "lambda$".length());
+            method = method.substring("lambda$".length(), fim > 0 ? fim : method.length());
+        }
+        return className + "." + method;
+    }
+
+    private static boolean isApplicationClass(String className) {
+        return !className.startsWith(SlowQueryLog.class.getName())
+                && !className.contains("$Proxy")
+                && !className.startsWith("java.") && !className.startsWith("javax.")
+                && !className.startsWith("jdk.") && !className.startsWith("sun.")
+                && !className.startsWith("com.sun.") && !className.startsWith("com.zaxxer.")
+                && !className.startsWith("org.");
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    private static <T> T proxy(Class<T> type, Object target, InvocationHandler handler) {
+        InvocationHandler comIdentidade = (proxy, method, args) -> {
+            if (method.getDeclaringClass() == Object.class) {
+                switch (method.getName()) {
+                    case "equals":
+                        return proxy == args[0];
+                    case "hashCode":
+                        return System.identityHashCode(proxy);
+                    default:
+                        return target.toString();
+                }
+            }
+            return handler.invoke(proxy, method, args);
+        };
+        return type.cast(Proxy.newProxyInstance(SlowQueryLog.class.getClassLoader(),
+                new Class<?>[]{type}, comIdentidade));
+    }
+}
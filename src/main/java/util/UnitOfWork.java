@@ -0,0 +1,112 @@
+package util;
+
+import javax.persistence.EntityManager;
+import javax.persistence.RollbackException;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Unidade de trabalho: um único EntityManager e uma única transação para várias chamadas de DAO
+ *
+ * Dentro de execute/run, todos os DAOs usam o EntityManager vinculado à thread atual:
+ * uma conexão, um commit no final e o cache de primeiro nível compartilhado entre as chamadas.
+ * Chamadas aninhadas participam da unidade externa. Qualquer exceção desfaz tudo.
+ *
+ * <pre>
+ * Matricula matricula = UnitOfWork.execute(() -&gt; {
+ *     Aluno aluno = alunoDAO.findByMatricula("2024001");
+ *     if (matriculaDAO.existsActiveMatricula(aluno.getId(), curso.getId())) {
+ *         throw new IllegalStateException("Aluno já matriculado");
+ *     }
+ *     return matriculaDAO.save(new Matricula(aluno, curso));
+ * });
+ * </pre>
+ *
+ * O vínculo é por thread: operações disparadas em outras threads (ex.: AsyncDAO)
+ * não participam da unidade de quem as disparou.
+ */
+public class UnitOfWork {
+    
+    private static final ThreadLocal<EntityManager> current = new ThreadLocal<>();
+    
+    /**
+     * Executa o trabalho em uma unidade de trabalho e retorna o resultado
+     * Se já houver uma unidade ativa na thread, participa dela
+     * @param work Trabalho (chamadas de DAO)
+     * @return Resultado do trabalho
+     */
+    public static <R> R execute(Supplier<R> work) {
+        return inTransaction(em -> work.get());
+    }
+    
+    /**
+     * Executa o trabalho em uma unidade de trabalho
+     * Se já houver uma unidade ativa na thread, participa dela
+     * @param work Trabalho (chamadas de DAO)
+     */
+    public static void run(Runnable work) {
+        inTransaction(em -> {
+            work.run();
+            return null;
+        });
+    }
+    
+    /**
+     * Executa o trabalho com o EntityManager da unidade ativa ou, se não houver,
+     * em uma nova unidade (begin, commit ao final, rollback em caso de exceção)
+     * Uma exceção em uma chamada aninhada marca a unidade externa para rollback,
+     * mesmo que o chamador a trate
+     * @param work Trabalho que recebe o EntityManager
+     * @return Resultado do trabalho
+     */
+    public static <R> R inTransaction(Function<EntityManager, R> work) {
+        EntityManager bound = current.get();
+        if (bound != null) {
+            try {
+                return work.apply(bound);
+            } catch (RuntimeException | Error e) {
+                if (bound.getTransaction().isActive()) {
+                    bound.getTransaction().setRollbackOnly();
+                }
+                throw e;
+            }
+        }
+        
+        EntityManager em = JPAUtil.getEntityManager();
+        current.set(em);
+        try {
+            em.getTransaction().begin();
+            R result = work.apply(em);
+            // O Hibernate desfaz em silêncio um commit marcado para rollback
+            if (em.getTransaction().getRollbackOnly()) {
+                throw new RollbackException("Unidade de trabalho marcada para rollback após um erro tratado");
+            }
+            em.getTransaction().commit();
+            return result;
+        } catch (RuntimeException | Error e) {
+            if (em.getTransaction().isActive()) {
+                em.getTransaction().rollback();
+            }
+            throw e;
+        } finally {
+            current.remove();
+            em.close();
+        }
+    }
+    
+    /**
+     * Retorna o EntityManager da unidade de trabalho ativa na thread
+     * @return EntityManager ou null se não houver unidade ativa
+     */
+    public static EntityManager current() {
+        return current.get();
+    }
+    
+    /**
+     * Verifica se há uma unidade de trabalho ativa na thread atual
+     * @return true se houver
+     */
+    public static boolean isActive() {
+        return current.get() != null;
+    }
+}
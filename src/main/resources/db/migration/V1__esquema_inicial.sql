@@ -0,0 +1,110 @@
+-- Esquema inicial (antes gerado pelo hibernate.hbm2ddl.auto=update)
+-- Idempotente: em bancos já criados pelo Hibernate, apenas troca os nomes gerados das
+-- restrições por nomes explícitos e cria os índices que faltavam
+
+CREATE SEQUENCE IF NOT EXISTS alunos_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS cursos_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS disciplinas_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS matriculas_seq START WITH 1 INCREMENT BY 50;
+
+CREATE TABLE IF NOT EXISTS alunos (
+    id              bigint       NOT NULL,
+    nome            varchar(100) NOT NULL,
+    matricula       varchar(20)  NOT NULL,
+    email           varchar(100) NOT NULL,
+    data_nascimento date,
+    telefone        varchar(20),
+    CONSTRAINT alunos_pkey PRIMARY KEY (id)
+);
+
+CREATE TABLE IF NOT EXISTS cursos (
+    id            bigint       NOT NULL,
+    nome          varchar(100) NOT NULL,
+    codigo        varchar(20)  NOT NULL,
+    descricao     varchar(500),
+    carga_horaria integer,
+    CONSTRAINT cursos_pkey PRIMARY KEY (id)
+);
+
+CREATE TABLE IF NOT EXISTS disciplinas (
+    id            bigint       NOT NULL,
+    nome          varchar(100) NOT NULL,
+    codigo        varchar(20)  NOT NULL,
+    ementa        varchar(500),
+    carga_horaria integer,
+    CONSTRAINT disciplinas_pkey PRIMARY KEY (id)
+);
+
+CREATE TABLE IF NOT EXISTS curso_disciplina (
+    curso_id      bigint NOT NULL,
+    disciplina_id bigint NOT NULL
+);
+
+CREATE TABLE IF NOT EXISTS matriculas (
+    id             bigint      NOT NULL,
+    aluno_id       bigint      NOT NULL,
+    curso_id       bigint      NOT NULL,
+    data_matricula date        NOT NULL,
+    status         varchar(20) NOT NULL,
+    version        bigint      NOT NULL DEFAULT 0,
+    CONSTRAINT matriculas_pkey PRIMARY KEY (id)
+);
+
+-- Bancos criados antes de Matricula ter @Version
+ALTER TABLE matriculas ADD COLUMN IF NOT EXISTS version bigint;
+UPDATE matriculas SET version = 0 WHERE version IS NULL;
+ALTER TABLE matriculas ALTER COLUMN version SET DEFAULT 0;
+ALTER TABLE matriculas ALTER COLUMN version SET NOT NULL;
+
+-- Restrições com nome gerado pelo Hibernate (uk_..., fk...); algumas versões criavam
+-- a mesma restrição única duas vezes
+DO $$
+DECLARE
+    r record;
+BEGIN
+    FOR r IN
+        SELECT conrelid::regclass AS tabela, conname
+        FROM pg_constraint
+        WHERE conrelid IN ('alunos'::regclass, 'cursos'::regclass, 'disciplinas'::regclass,
+                           'curso_disciplina'::regclass, 'matriculas'::regclass)
+          AND contype IN ('u', 'f')
+          AND conname ~ '^(uk_|fk)[a-z0-9]{20,}$'
+    LOOP
+        EXECUTE format('ALTER TABLE %s DROP CONSTRAINT %I', r.tabela, r.conname);
+    END LOOP;
+END $$;
+
+DO $$
+DECLARE
+    r record;
+BEGIN
+    FOR r IN
+        SELECT * FROM (VALUES
+            ('alunos',           'uk_alunos_matricula',            'UNIQUE (matricula)'),
+            ('alunos',           'uk_alunos_email',                'UNIQUE (email)'),
+            ('cursos',           'uk_cursos_codigo',               'UNIQUE (codigo)'),
+            ('disciplinas',      'uk_disciplinas_codigo',          'UNIQUE (codigo)'),
+            ('curso_disciplina', 'fk_curso_disciplina_curso',      'FOREIGN KEY (curso_id) REFERENCES cursos (id)'),
+            ('curso_disciplina', 'fk_curso_disciplina_disciplina', 'FOREIGN KEY (disciplina_id) REFERENCES disciplinas (id)'),
+            ('matriculas',       'fk_matriculas_aluno',            'FOREIGN KEY (aluno_id) REFERENCES alunos (id)'),
+            ('matriculas',       'fk_matriculas_curso',            'FOREIGN KEY (curso_id) REFERENCES cursos (id)')
+        ) AS c (tabela, nome, definicao)
+    LOOP
+        IF NOT EXISTS (SELECT 1 FROM pg_constraint WHERE conname = r.nome) THEN
+            EXECUTE format('ALTER TABLE %I ADD CONSTRAINT %I %s', r.tabela, r.nome, r.definicao);
+        END IF;
+    END LOOP;
+END $$;
+
+-- Paginação keyset por nome (antes criados via @Index)
+CREATE INDEX IF NOT EXISTS idx_alunos_nome_id ON alunos (nome, id);
+CREATE INDEX IF NOT EXISTS idx_cursos_nome_id ON cursos (nome, id);
+CREATE INDEX IF NOT EXISTS idx_disciplinas_nome_id ON disciplinas (nome, id);
+
+-- Colunas filtradas por MatriculaDAO (findByAluno, findByCurso, findByStatus) e
+-- chaves estrangeiras (o PostgreSQL não indexa FKs automaticamente)
+CREATE INDEX IF NOT EXISTS idx_matriculas_aluno ON matriculas (aluno_id);
+CREATE INDEX IF NOT EXISTS idx_matriculas_curso_status ON matriculas (curso_id, status);
+CREATE INDEX IF NOT EXISTS idx_matriculas_status ON matriculas (status);
+CREATE INDEX IF NOT EXISTS idx_curso_disciplina_curso ON curso_disciplina (curso_id);
+CREATE INDEX IF NOT EXISTS idx_curso_disciplina_disciplina ON curso_disciplina (disciplina_id);
@@ -0,0 +1,17 @@
+-- Busca por nome: índices trigram (pg_trgm) sobre o nome sem acentos e em minúsculas
+-- Idempotente: bancos anteriores às migrações já tinham estes objetos, criados na inicialização
+
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+CREATE EXTENSION IF NOT EXISTS unaccent;
+
+-- unaccent() não é IMMUTABLE e não pode ser usada em índice; fixar o dicionário resolve
+CREATE OR REPLACE FUNCTION sica_normalizar(texto text) RETURNS text
+    LANGUAGE sql IMMUTABLE PARALLEL SAFE STRICT
+AS $$ SELECT lower(public.unaccent('public.unaccent'::regdictionary, texto)) $$;
+
+CREATE INDEX IF NOT EXISTS idx_alunos_nome_trgm
+    ON alunos USING gin (sica_normalizar(nome) gin_trgm_ops);
+CREATE INDEX IF NOT EXISTS idx_cursos_nome_trgm
+    ON cursos USING gin (sica_normalizar(nome) gin_trgm_ops);
+CREATE INDEX IF NOT EXISTS idx_disciplinas_nome_trgm
+    ON disciplinas USING gin (sica_normalizar(nome) gin_trgm_ops);
@@ -0,0 +1,21 @@
+-- Matrículas: no máximo uma matrícula ATIVA por aluno e curso
+-- Idempotente: bancos anteriores às migrações já tinham estes objetos, criados na inicialização
+
+-- Usado por MatriculaDAO.enroll (INSERT ... ON CONFLICT)
+DO $$
+DECLARE
+    duplicadas bigint;
+BEGIN
+    IF to_regclass('uk_matriculas_aluno_curso_ativa') IS NULL THEN
+        SELECT count(*) INTO duplicadas FROM (
+            SELECT 1 FROM matriculas WHERE status = 'ATIVA'
+            GROUP BY aluno_id, curso_id HAVING count(*) > 1
+        ) d;
+        IF duplicadas > 0 THEN
+            RAISE EXCEPTION 'Existem % pares aluno/curso com mais de uma matricula ATIVA; '
+                'cancele as duplicadas antes de executar as migracoes', duplicadas;
+        END IF;
+        CREATE UNIQUE INDEX uk_matriculas_aluno_curso_ativa
+            ON matriculas (aluno_id, curso_id) WHERE status = 'ATIVA';
+    END IF;
+END $$;
@@ -0,0 +1,100 @@
+-- Contadores do painel (EstatisticasDAO), mantidos por triggers de comando
+-- Cada INSERT/UPDATE/DELETE ajusta os contadores uma vez por comando, a partir das
+-- tabelas de transição, em vez de o painel executar COUNT(*) sobre as tabelas
+-- Idempotente: bancos anteriores às migrações já tinham estes objetos, criados na inicialização
+
+CREATE OR REPLACE FUNCTION sica_contar_linhas() RETURNS trigger
+    LANGUAGE plpgsql
+AS $$
+BEGIN
+    IF TG_OP = 'INSERT' THEN
+        UPDATE estatisticas_totais SET total = total + (SELECT count(*) FROM novas)
+        WHERE tabela = TG_TABLE_NAME;
+    ELSIF TG_OP = 'DELETE' THEN
+        UPDATE estatisticas_totais SET total = total - (SELECT count(*) FROM antigas)
+        WHERE tabela = TG_TABLE_NAME;
+    ELSE
+        UPDATE estatisticas_totais SET total = 0 WHERE tabela = TG_TABLE_NAME;
+    END IF;
+    RETURN NULL;
+END $$;
+
+-- Matrículas são contadas por curso e status; o UPDATE move a contagem entre status
+-- Cada ramo só referencia as tabelas de transição que existem para a operação.
+-- A ordem fixa das chaves evita deadlock entre transações concorrentes
+CREATE OR REPLACE FUNCTION sica_contar_matriculas() RETURNS trigger
+    LANGUAGE plpgsql
+AS $$
+BEGIN
+    IF TG_OP = 'INSERT' THEN
+        INSERT INTO estatisticas_matriculas AS e (curso_id, status, total)
+        SELECT curso_id, status, count(*) FROM novas
+        GROUP BY curso_id, status ORDER BY curso_id, status
+        ON CONFLICT (curso_id, status) DO UPDATE SET total = e.total + EXCLUDED.total;
+    ELSIF TG_OP = 'DELETE' THEN
+        INSERT INTO estatisticas_matriculas AS e (curso_id, status, total)
+        SELECT curso_id, status, -count(*) FROM antigas
+        GROUP BY curso_id, status ORDER BY curso_id, status
+        ON CONFLICT (curso_id, status) DO UPDATE SET total = e.total + EXCLUDED.total;
+    ELSIF TG_OP = 'UPDATE' THEN
+        INSERT INTO estatisticas_matriculas AS e (curso_id, status, total)
+        SELECT curso_id, status, sum(delta) FROM (
+            SELECT curso_id, status, 1 AS delta FROM novas
+            UNION ALL
+            SELECT curso_id, status, -1 FROM antigas
+        ) d
+        GROUP BY curso_id, status HAVING sum(delta) <> 0 ORDER BY curso_id, status
+        ON CONFLICT (curso_id, status) DO UPDATE SET total = e.total + EXCLUDED.total;
+    ELSE
+        DELETE FROM estatisticas_matriculas;
+    END IF;
+    RETURN NULL;
+END $$;
+
+DO $$
+DECLARE
+    tabela text;
+BEGIN
+    IF to_regclass('estatisticas_totais') IS NOT NULL THEN
+        RETURN;
+    END IF;
+
+    -- Impede escritas enquanto os contadores são criados e preenchidos
+    LOCK TABLE alunos, cursos, disciplinas, matriculas IN SHARE ROW EXCLUSIVE MODE;
+
+    CREATE TABLE estatisticas_totais (
+        tabela varchar(30) PRIMARY KEY,
+        total  bigint NOT NULL
+    );
+    CREATE TABLE estatisticas_matriculas (
+        curso_id bigint      NOT NULL,
+        status   varchar(20) NOT NULL,
+        total    bigint      NOT NULL,
+        PRIMARY KEY (curso_id, status)
+    );
+
+    FOREACH tabela IN ARRAY ARRAY['alunos', 'cursos', 'disciplinas'] LOOP
+        EXECUTE format('INSERT INTO estatisticas_totais SELECT %L, count(*) FROM %I', tabela, tabela);
+        EXECUTE format('CREATE TRIGGER %I AFTER INSERT ON %I REFERENCING NEW TABLE AS novas '
+                       'FOR EACH STATEMENT EXECUTE FUNCTION sica_contar_linhas()', 'trg_' || tabela || '_contar_ins', tabela);
+        EXECUTE format('CREATE TRIGGER %I AFTER DELETE ON %I REFERENCING OLD TABLE AS antigas '
+                       'FOR EACH STATEMENT EXECUTE FUNCTION sica_contar_linhas()', 'trg_' || tabela || '_contar_del', tabela);
+        EXECUTE format('CREATE TRIGGER %I AFTER TRUNCATE ON %I '
+                       'FOR EACH STATEMENT EXECUTE FUNCTION sica_contar_linhas()', 'trg_' || tabela || '_contar_trunc', tabela);
+    END LOOP;
+
+    INSERT INTO estatisticas_matriculas
+    SELECT curso_id, status, count(*) FROM matriculas GROUP BY curso_id, status;
+
+    CREATE TRIGGER trg_matriculas_contar_ins AFTER INSERT ON matriculas
+        REFERENCING NEW TABLE AS novas
+        FOR EACH STATEMENT EXECUTE FUNCTION sica_contar_matriculas();
+    CREATE TRIGGER trg_matriculas_contar_upd AFTER UPDATE ON matriculas
+        REFERENCING OLD TABLE AS antigas NEW TABLE AS novas
+        FOR EACH STATEMENT EXECUTE FUNCTION sica_contar_matriculas();
+    CREATE TRIGGER trg_matriculas_contar_del AFTER DELETE ON matriculas
+        REFERENCING OLD TABLE AS antigas
+        FOR EACH STATEMENT EXECUTE FUNCTION sica_contar_matriculas();
+    CREATE TRIGGER trg_matriculas_contar_trunc AFTER TRUNCATE ON matriculas
+        FOR EACH STATEMENT EXECUTE FUNCTION sica_contar_matriculas();
+END $$;
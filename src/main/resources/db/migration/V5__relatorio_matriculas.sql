@@ -0,0 +1,33 @@
+-- Relatórios de matrículas (RelatorioDAO): agregados pré-calculados por curso, ano e status
+-- Atualizados com REFRESH MATERIALIZED VIEW CONCURRENTLY (sob demanda ou agendado),
+-- sem bloquear as leituras dos relatórios
+-- Idempotente: bancos anteriores às migrações já tinham estes objetos, criados na inicialização
+
+CREATE MATERIALIZED VIEW IF NOT EXISTS relatorio_matriculas AS
+SELECT m.curso_id,
+       c.codigo                                            AS curso_codigo,
+       c.nome                                              AS curso_nome,
+       CAST(extract(year FROM m.data_matricula) AS integer) AS ano,
+       m.status,
+       count(*)                                            AS total,
+       count(DISTINCT m.aluno_id)                          AS alunos,
+       -- Idade média (em anos) na data da matrícula, entre os alunos com data de nascimento
+       round(avg(extract(year FROM age(m.data_matricula, a.data_nascimento))), 1) AS idade_media
+FROM matriculas m
+JOIN cursos c ON c.id = m.curso_id
+JOIN alunos a ON a.id = m.aluno_id
+GROUP BY m.curso_id, c.codigo, c.nome, extract(year FROM m.data_matricula), m.status;
+
+-- Obrigatório para REFRESH ... CONCURRENTLY
+CREATE UNIQUE INDEX IF NOT EXISTS uk_relatorio_matriculas
+    ON relatorio_matriculas (curso_id, ano, status);
+CREATE INDEX IF NOT EXISTS idx_relatorio_matriculas_ano
+    ON relatorio_matriculas (ano, status);
+
+CREATE TABLE IF NOT EXISTS relatorios_atualizacao (
+    visao         varchar(60) PRIMARY KEY,
+    atualizado_em timestamptz NOT NULL,
+    duracao_ms    bigint      NOT NULL
+);
+INSERT INTO relatorios_atualizacao VALUES ('relatorio_matriculas', now(), 0)
+ON CONFLICT (visao) DO NOTHING;
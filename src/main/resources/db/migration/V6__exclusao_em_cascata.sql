@@ -0,0 +1,16 @@
+-- Exclusão em cascata no banco (GenericDAO.deleteAllByIds / deleteWhere)
+-- Excluir um aluno ou curso remove suas matrículas, e excluir um curso ou disciplina remove
+-- as linhas da grade (curso_disciplina), no mesmo DELETE e sem carregar nada para a memória
+-- Os triggers de V4 continuam ajustando os contadores, inclusive nas exclusões em cascata
+
+ALTER TABLE matriculas
+    DROP CONSTRAINT IF EXISTS fk_matriculas_aluno,
+    ADD CONSTRAINT fk_matriculas_aluno FOREIGN KEY (aluno_id) REFERENCES alunos (id) ON DELETE CASCADE,
+    DROP CONSTRAINT IF EXISTS fk_matriculas_curso,
+    ADD CONSTRAINT fk_matriculas_curso FOREIGN KEY (curso_id) REFERENCES cursos (id) ON DELETE CASCADE;
+
+ALTER TABLE curso_disciplina
+    DROP CONSTRAINT IF EXISTS fk_curso_disciplina_curso,
+    ADD CONSTRAINT fk_curso_disciplina_curso FOREIGN KEY (curso_id) REFERENCES cursos (id) ON DELETE CASCADE,
+    DROP CONSTRAINT IF EXISTS fk_curso_disciplina_disciplina,
+    ADD CONSTRAINT fk_curso_disciplina_disciplina FOREIGN KEY (disciplina_id) REFERENCES disciplinas (id) ON DELETE CASCADE;
@@ -0,0 +1,6 @@
+-- Controle de concorrência otimista em alunos, cursos e disciplinas (@Version), como já existe em
+-- matriculas: GenericDAO.patch(id, versao, alteracoes) detecta atualizações perdidas sem ler a linha antes
+
+ALTER TABLE alunos ADD COLUMN IF NOT EXISTS version bigint NOT NULL DEFAULT 0;
+ALTER TABLE cursos ADD COLUMN IF NOT EXISTS version bigint NOT NULL DEFAULT 0;
+ALTER TABLE disciplinas ADD COLUMN IF NOT EXISTS version bigint NOT NULL DEFAULT 0;
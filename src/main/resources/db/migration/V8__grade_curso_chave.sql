@@ -0,0 +1,15 @@
+-- Grade dos cursos: chave primária em curso_disciplina
+-- Impede a mesma disciplina duas vezes na grade e é o alvo do ON CONFLICT de
+-- CursoDAO.addDisciplina e replaceCurriculum
+
+-- Linhas repetidas gravadas enquanto a tabela não tinha chave
+DELETE FROM curso_disciplina a
+USING curso_disciplina b
+WHERE a.ctid > b.ctid
+  AND a.curso_id = b.curso_id
+  AND a.disciplina_id = b.disciplina_id;
+
+ALTER TABLE curso_disciplina ADD CONSTRAINT curso_disciplina_pkey PRIMARY KEY (curso_id, disciplina_id);
+
+-- Coberto pela chave primária (curso_id é a primeira coluna)
+DROP INDEX IF EXISTS idx_curso_disciplina_curso;
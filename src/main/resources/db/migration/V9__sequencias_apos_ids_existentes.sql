@@ -0,0 +1,11 @@
+-- Sequências à frente dos ids existentes
+-- Bancos adotados pela V1 já tinham linhas com ids gerados por IDENTITY, mas as sequências
+-- foram criadas começando em 1: o gerador pooled (allocationSize 50) repetiria esses ids.
+-- Com is_called = true, o próximo nextval é o valor abaixo + 50 e o Hibernate usa os 50 ids
+-- anteriores a ele, todos acima de max(id). Nunca recua a sequência (last_value), para não
+-- repetir blocos já reservados por instâncias em execução.
+
+SELECT setval('alunos_seq', GREATEST((SELECT max(id) FROM alunos), (SELECT last_value FROM alunos_seq), 1));
+SELECT setval('cursos_seq', GREATEST((SELECT max(id) FROM cursos), (SELECT last_value FROM cursos_seq), 1));
+SELECT setval('disciplinas_seq', GREATEST((SELECT max(id) FROM disciplinas), (SELECT last_value FROM disciplinas_seq), 1));
+SELECT setval('matriculas_seq', GREATEST((SELECT max(id) FROM matriculas), (SELECT last_value FROM matriculas_seq), 1));